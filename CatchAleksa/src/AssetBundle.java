@@ -0,0 +1,198 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.CodeSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The AssetBundle class reads the packed sprites of the CatchAleksa game. The
+ * bundle is a single file written by the AssetPacker of the tools module at
+ * build time and placed next to the game jar (or the class folder); it is
+ * memory-mapped once and every sprite is then read straight from the mapping,
+ * without any further file lookups.
+ *
+ * The bundle starts with a header and an index, followed by the PNG data of
+ * all sprites (all numbers big-endian):
+ *
+ * <pre>
+ * int    MAGIC
+ * int    VERSION
+ * int    number of entries
+ * entry: short name length, UTF-8 name ("Assets/..."),
+ *        int width, int height, int data offset, int data length
+ * ...    PNG data
+ * </pre>
+ *
+ * The sprite size is stored in the index, so the size of a sprite is known
+ * before it is decoded.
+ *
+ * @author Florin
+ */
+public class AssetBundle {
+
+	public static final int MAGIC = 0x4341424E; // "CABN"
+	public static final int VERSION = 1;
+	// File name of the bundle next to the game jar or the class folder
+	public static final String FILE_NAME = "assets.bundle";
+
+	private final MappedByteBuffer data;
+	private final Map<String, Entry> entries = new HashMap<>();
+
+	/**
+	 * The position and size of one sprite in the bundle.
+	 */
+	private static class Entry {
+		final int width, height, offset, length;
+
+		Entry(int width, int height, int offset, int length) {
+			this.width = width;
+			this.height = height;
+			this.offset = offset;
+			this.length = length;
+		}
+	}
+
+	/**
+	 * Maps the given bundle file into memory and reads its index.
+	 *
+	 * @param file The bundle file.
+	 * @throws IOException If the file cannot be read or is not a bundle.
+	 */
+	public AssetBundle(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		if (data.getInt() != MAGIC || data.getInt() != VERSION) {
+			throw new IOException("Not a CatchAleksa asset bundle: " + file);
+		}
+		int count = data.getInt();
+		for (int i = 0; i < count; i++) {
+			byte[] name = new byte[data.getShort()];
+			data.get(name);
+			entries.put(new String(name, StandardCharsets.UTF_8),
+					new Entry(data.getInt(), data.getInt(), data.getInt(), data.getInt()));
+		}
+	}
+
+	/**
+	 * Opens the bundle the game was built with. The bundle is looked up at the
+	 * path given by {@code -Dcatchaleksa.bundle}, or else next to the game jar
+	 * or the class folder, so it does not depend on the working directory.
+	 *
+	 * @return The bundle, or null if there is none and the loose assets should be
+	 *         used.
+	 */
+	public static AssetBundle openDefault() {
+		try {
+			String property = System.getProperty("catchaleksa.bundle");
+			Path file = property != null ? Paths.get(property) : besideClasses();
+			return file != null && Files.isRegularFile(file) ? new AssetBundle(file) : null;
+		} catch (IOException | URISyntaxException | SecurityException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the bundle path beside the jar or the class folder the game is
+	 * started from, e.g. target/assets.bundle for target/classes.
+	 */
+	private static Path besideClasses() throws URISyntaxException {
+		CodeSource source = AssetBundle.class.getProtectionDomain().getCodeSource();
+		if (source == null) {
+			return null;
+		}
+		return Paths.get(source.getLocation().toURI()).resolveSibling(FILE_NAME);
+	}
+
+	/**
+	 * Checks whether the bundle contains the given sprite.
+	 *
+	 * @param id The asset id, e.g. "Assets/Hearts/Hearts3.png".
+	 * @return True if the sprite is packed in the bundle; otherwise, false.
+	 */
+	public boolean contains(String id) {
+		return entries.containsKey(id);
+	}
+
+	/**
+	 * Opens a stream over the PNG data of the given sprite. The stream reads
+	 * directly from the mapped file and can be used by any thread.
+	 *
+	 * @param id The asset id, e.g. "Assets/Hearts/Hearts3.png".
+	 * @return The stream over the PNG data.
+	 */
+	public InputStream open(String id) {
+		Entry entry = entries.get(id);
+		return new BufferInputStream(data.slice(entry.offset, entry.length));
+	}
+
+	/**
+	 * Returns the width of the given sprite without decoding it.
+	 *
+	 * @param id The asset id.
+	 * @return The width in pixels.
+	 */
+	public int getWidth(String id) {
+		return entries.get(id).width;
+	}
+
+	/**
+	 * Returns the height of the given sprite without decoding it.
+	 *
+	 * @param id The asset id.
+	 * @return The height in pixels.
+	 */
+	public int getHeight(String id) {
+		return entries.get(id).height;
+	}
+
+	/**
+	 * Returns the number of sprites in the bundle.
+	 *
+	 * @return The number of entries.
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * An InputStream over a ByteBuffer.
+	 */
+	private static class BufferInputStream extends InputStream {
+		private final ByteBuffer buffer;
+
+		BufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) {
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			length = Math.min(length, buffer.remaining());
+			buffer.get(bytes, offset, length);
+			return length;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+}
@@ -0,0 +1,427 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+/**
+ * The AssetCache class holds the decoded sprites of the CatchAleksa game. All
+ * images are keyed by their asset id (the path below the source folder, e.g.
+ * "Assets/Obstacles/Obstacle1.png") and are decoded once, normally during
+ * {@link #preloadAsync(Executor)} at startup. Sprites that are shown at a size
+ * other than their own are decoded at that size by {@link #getScaled}, so they
+ * are drawn 1:1 instead of being resampled in every frame. Sprites repeated at a
+ * distance other than their width are composed into one tile by
+ * {@link #getTile}. The cache keeps track
+ * of the decoded size of every image and evicts the least recently used ones
+ * once the memory budget is exceeded.
+ *
+ * The sprites are read from the memory-mapped {@link AssetBundle} if the game
+ * was built with one; otherwise they are loaded from the classpath. The preload
+ * also computes the {@link CollisionMasks} of the simulation from the same
+ * sprites.
+ *
+ * @author Florin
+ */
+public class AssetCache {
+
+	// Default memory budget for decoded images (64 MB)
+	private static final long DEFAULT_BUDGET = 64L * 1024 * 1024;
+
+	/**
+	 * Every sprite the game uses. These are decoded by {@link #preload()} or
+	 * {@link #preloadAsync(Executor)} so that
+	 * round transitions and key presses never reach the PNG decoder.
+	 */
+	public static final String[] ASSETS = { "Assets/BackGrounds/Startscreen.png",
+			"Assets/BackGrounds/GreenBackground.png", "Assets/WalkingAnimation/Back.png",
+			"Assets/WalkingAnimation/BackLeft.png", "Assets/WalkingAnimation/BackRight.png",
+			"Assets/WalkingAnimation/Front.png", "Assets/WalkingAnimation/FrontLeft.png",
+			"Assets/WalkingAnimation/FrontRight.png", "Assets/WalkingAnimation/Left.png",
+			"Assets/WalkingAnimation/LeftLeft.png", "Assets/WalkingAnimation/LeftRight.png",
+			"Assets/WalkingAnimation/Right.png", "Assets/WalkingAnimation/RightLeft.png",
+			"Assets/WalkingAnimation/RightRight.png", "Assets/IdlePhoneAnimation/IdlePhone1.png",
+			"Assets/IdlePhoneAnimation/IdlePhone2.png", "Assets/IdlePhoneAnimation/IdlePhone3.png",
+			"Assets/IdlePhoneAnimation/IdlePhone4.png", "Assets/IdlePhoneAnimation/IdlePhone5.png",
+			"Assets/IdlePhoneAnimation/IdlePhone6.png", "Assets/IdlePhoneAnimation/IdlePhone7.png",
+			"Assets/IdlePhoneAnimation/IdlePhone8.png", "Assets/IdlePhoneAnimation/IdlePhone9.png",
+			"Assets/Hearts/Hearts0.png", "Assets/Hearts/Hearts1.png", "Assets/Hearts/Hearts2.png",
+			"Assets/Hearts/Hearts3.png", "Assets/Informative/NextImage.png", "Assets/Informative/Stage1Info.png",
+			"Assets/Informative/Stage2Info.png", "Assets/Informative/Stage3Info.png" };
+
+	private static final AssetCache instance = new AssetCache(DEFAULT_BUDGET);
+
+	private final long budget;
+	// the packed sprites, or null to load them from the classpath
+	private final AssetBundle bundle;
+	private long usedBytes = 0;
+	// access-ordered, so the first entry is always the least recently used one
+	private final LinkedHashMap<String, Image> images = new LinkedHashMap<>(64, 0.75f, true);
+	// number of assets decoded by the current preload, and of all its assets
+	private final AtomicInteger preloaded = new AtomicInteger();
+	private volatile int preloadTotal = ASSETS.length + GameSimulation.OBSTACLE_IMAGES.length + 1;
+	// computed once by the preload; guarded by their own lock, so computing them
+	// does not block the decoding of the images
+	private final Object collisionMasksLock = new Object();
+	private CollisionMasks collisionMasks;
+	private boolean collisionMasksLoaded = false;
+
+	/**
+	 * Constructs a new AssetCache with the given memory budget.
+	 *
+	 * @param budget The maximum number of bytes the decoded images may occupy.
+	 */
+	public AssetCache(long budget) {
+		this(budget, AssetBundle.openDefault());
+	}
+
+	/**
+	 * Constructs a new AssetCache with the given memory budget, reading the
+	 * sprites from the given bundle.
+	 *
+	 * @param budget The maximum number of bytes the decoded images may occupy.
+	 * @param bundle The bundle to read the sprites from, or null to load them
+	 *               from the classpath.
+	 */
+	public AssetCache(long budget, AssetBundle bundle) {
+		this.budget = budget;
+		this.bundle = bundle;
+	}
+
+	/**
+	 * Returns the cache shared by all controllers of the game.
+	 *
+	 * @return The shared AssetCache instance.
+	 */
+	public static AssetCache getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Decodes every sprite listed in {@link #ASSETS} and every scaled sprite the
+	 * game uses. Should be called once at startup, before the first controller is
+	 * created.
+	 */
+	public void preload() {
+		for (String id : ASSETS) {
+			get(id);
+		}
+		for (Variant variant : variants()) {
+			variant.load(this);
+		}
+		getCollisionMasks();
+	}
+
+	/**
+	 * Decodes every sprite listed in {@link #ASSETS} and every scaled sprite the
+	 * game uses, and computes the collision masks, in parallel on the given
+	 * executor. The progress can be followed with {@link #getPreloadProgress()}.
+	 *
+	 * @param executor The executor the images are decoded on.
+	 * @return A future that completes once all sprites are decoded.
+	 */
+	public CompletableFuture<Void> preloadAsync(Executor executor) {
+		preloaded.set(0);
+		List<Variant> variants = variants();
+		preloadTotal = ASSETS.length + variants.size() + 1;
+		CompletableFuture<?>[] loads = new CompletableFuture<?>[preloadTotal];
+		loads[preloadTotal - 1] = CompletableFuture.runAsync(() -> {
+			getCollisionMasks();
+			preloaded.incrementAndGet();
+		}, executor);
+		for (int i = 0; i < ASSETS.length; i++) {
+			String id = ASSETS[i];
+			loads[i] = CompletableFuture.runAsync(() -> {
+				get(id);
+				preloaded.incrementAndGet();
+			}, executor);
+		}
+		for (int i = 0; i < variants.size(); i++) {
+			Variant variant = variants.get(i);
+			loads[ASSETS.length + i] = CompletableFuture.runAsync(() -> {
+				variant.load(this);
+				preloaded.incrementAndGet();
+			}, executor);
+		}
+		return CompletableFuture.allOf(loads);
+	}
+
+	/**
+	 * Returns the share of the sprites decoded by the current preload.
+	 *
+	 * @return The progress between 0 and 1.
+	 */
+	public double getPreloadProgress() {
+		return (double) preloaded.get() / preloadTotal;
+	}
+
+	/**
+	 * Returns the collision masks of the game's sprites, read from the same
+	 * bundle as the images. They are computed by the preload, or on the first
+	 * call if there was none.
+	 *
+	 * @return The masks, or null if the sprites cannot be read and the
+	 *         simulation has to test the bounding boxes.
+	 */
+	public CollisionMasks getCollisionMasks() {
+		synchronized (collisionMasksLock) {
+			if (!collisionMasksLoaded) {
+				collisionMasksLoaded = true;
+				try {
+					collisionMasks = CollisionMasks.load(bundle);
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+			return collisionMasks;
+		}
+	}
+
+	/**
+	 * Returns every sprite the game shows at a size other than its own, prepared
+	 * by the preload: the obstacles at the size of an obstacle body, and the
+	 * fence tile at the fence spacing of every level, so a round start never
+	 * decodes or composes an image.
+	 */
+	private static List<Variant> variants() {
+		List<Variant> variants = new ArrayList<>();
+		for (String id : GameSimulation.OBSTACLE_IMAGES) {
+			variants.add(new Variant(id, GameSimulation.OBSTACLE_WIDTH, GameSimulation.OBSTACLE_HEIGHT));
+		}
+		Set<Double> spacings = new LinkedHashSet<>();
+		for (Level level : LevelLoader.loadDefault()) {
+			if (level.hasFences()) {
+				spacings.add(level.getFenceSpacing());
+			}
+		}
+		for (double spacing : spacings) {
+			variants.add(Variant.tile(FenceController.FENCE_IMAGE, spacing));
+		}
+		return variants;
+	}
+
+	/**
+	 * Returns the image for the given asset id. The image is decoded only if it is
+	 * not cached yet (or was evicted earlier).
+	 *
+	 * @param id The asset id, e.g. "Assets/Hearts/Hearts3.png".
+	 * @return The decoded image.
+	 */
+	public Image get(String id) {
+		String key = normalize(id);
+		return load(key, key, 0, 0);
+	}
+
+	/**
+	 * Returns the image for the given asset id, scaled to the given size. The
+	 * image is decoded directly at that size, and each combination of asset and
+	 * size is cached separately, so a sprite shown at that size is drawn without
+	 * scaling.
+	 *
+	 * @param id     The asset id, e.g. "Assets/Obstacles/Obstacle1.png".
+	 * @param width  The width in pixels.
+	 * @param height The height in pixels.
+	 * @return The decoded, scaled image.
+	 */
+	public Image getScaled(String id, double width, double height) {
+		String key = normalize(id);
+		return load(key + "@" + width + "x" + height, key, width, height);
+	}
+
+	/**
+	 * Returns a tile of the given width in which the given sprite repeats every
+	 * tileWidth pixels, at its own size. If the sprite is wider than the tile,
+	 * the copies overlap, the right one on top, like sprites placed one after
+	 * another at that distance; if it is narrower, the gap stays transparent.
+	 * The tile is cached per asset and width.
+	 *
+	 * @param id        The asset id, e.g. "Assets/Fences/FenceSide.png".
+	 * @param tileWidth The distance at which the sprite repeats in pixels.
+	 * @return The composed tile, or the sprite itself if it has that width.
+	 */
+	public Image getTile(String id, double tileWidth) {
+		String key = normalize(id);
+		return cached(key + "#" + tileWidth, () -> composeTile(get(key), (int) Math.round(tileWidth)));
+	}
+
+	/**
+	 * Returns the cached image with the given key, decoding the asset if needed.
+	 *
+	 * @param key    The key of the image in the cache.
+	 * @param asset  The normalized asset id.
+	 * @param width  The requested width, or 0 for the width of the asset.
+	 * @param height The requested height, or 0 for the height of the asset.
+	 */
+	private Image load(String key, String asset, double width, double height) {
+		return cached(key, () -> bundle != null && bundle.contains(asset)
+				? new Image(bundle.open(asset), width, height, false, true)
+				: new Image(asset, width, height, false, true));
+	}
+
+	/**
+	 * Returns the cached image with the given key, creating it if needed.
+	 * Creating happens outside of the lock, so several threads can decode
+	 * different images at the same time.
+	 *
+	 * @param key    The key of the image in the cache.
+	 * @param create Creates the image if it is not cached.
+	 */
+	private Image cached(String key, Supplier<Image> create) {
+		synchronized (this) {
+			Image image = images.get(key);
+			if (image != null) {
+				return image;
+			}
+		}
+		Image decoded = create.get();
+		synchronized (this) {
+			// another thread may have decoded the same image meanwhile
+			Image image = images.get(key);
+			if (image == null) {
+				image = decoded;
+				images.put(key, image);
+				usedBytes += sizeOf(image);
+				evict();
+			}
+			return image;
+		}
+	}
+
+	/**
+	 * Returns the number of bytes currently used by the decoded images.
+	 *
+	 * @return The used bytes.
+	 */
+	public synchronized long getUsedBytes() {
+		return usedBytes;
+	}
+
+	/**
+	 * Removes the least recently used images until the cache fits into its budget
+	 * again. The most recently used image is never evicted.
+	 */
+	private void evict() {
+		Iterator<Map.Entry<String, Image>> it = images.entrySet().iterator();
+		while (usedBytes > budget && images.size() > 1) {
+			Image eldest = it.next().getValue();
+			usedBytes -= sizeOf(eldest);
+			it.remove();
+		}
+	}
+
+	/**
+	 * Strips the different prefixes used for assets in the code base, so that
+	 * "/Assets/..." and "file:../CatchAleksa/src/Assets/..." map to the same entry
+	 * as "Assets/...".
+	 */
+	private static String normalize(String id) {
+		int index = id.indexOf("Assets/");
+		return index > 0 ? id.substring(index) : id;
+	}
+
+	/**
+	 * Composes the tile of {@link #getTile}: the copies of the sprite starting at
+	 * or left of the tile are blended onto it from left to right.
+	 */
+	private static Image composeTile(Image sprite, int tileWidth) {
+		int spriteWidth = (int) sprite.getWidth();
+		int height = (int) sprite.getHeight();
+		if (spriteWidth == tileWidth) {
+			return sprite;
+		}
+		int[] source = new int[spriteWidth * height];
+		sprite.getPixelReader().getPixels(0, 0, spriteWidth, height, PixelFormat.getIntArgbInstance(), source, 0,
+				spriteWidth);
+		int[] tile = new int[tileWidth * height];
+		for (int start = -((spriteWidth - 1) / tileWidth) * tileWidth; start < tileWidth; start += tileWidth) {
+			int from = Math.max(0, start);
+			int to = Math.min(tileWidth, start + spriteWidth);
+			for (int y = 0; y < height; y++) {
+				for (int x = from; x < to; x++) {
+					tile[y * tileWidth + x] = blend(source[y * spriteWidth + x - start], tile[y * tileWidth + x]);
+				}
+			}
+		}
+		WritableImage image = new WritableImage(tileWidth, height);
+		image.getPixelWriter().setPixels(0, 0, tileWidth, height, PixelFormat.getIntArgbInstance(), tile, 0,
+				tileWidth);
+		return image;
+	}
+
+	/**
+	 * Draws the ARGB pixel over the other one (source over destination).
+	 */
+	private static int blend(int over, int under) {
+		int overAlpha = over >>> 24;
+		int underAlpha = under >>> 24;
+		if (overAlpha == 255 || underAlpha == 0) {
+			return over;
+		}
+		if (overAlpha == 0) {
+			return under;
+		}
+		// weights of both pixels, scaled by 255 * 255
+		int overWeight = overAlpha * 255;
+		int underWeight = underAlpha * (255 - overAlpha);
+		int weight = overWeight + underWeight;
+		int argb = (weight + 127) / 255 << 24;
+		for (int shift = 0; shift < 24; shift += 8) {
+			int channel = ((over >>> shift & 0xff) * overWeight + (under >>> shift & 0xff) * underWeight
+					+ weight / 2) / weight;
+			argb |= channel << shift;
+		}
+		return argb;
+	}
+
+	/**
+	 * Estimates the decoded size of an image (4 bytes per pixel).
+	 */
+	private static long sizeOf(Image image) {
+		return (long) image.getWidth() * (long) image.getHeight() * 4;
+	}
+
+	/**
+	 * A sprite decoded at a fixed size, or a tile, prepared by the preload.
+	 */
+	private static class Variant {
+
+		private final String id;
+		// the tile width of a tile
+		private final double width, height;
+		private final boolean tile;
+
+		private Variant(String id, double width, double height) {
+			this(id, width, height, false);
+		}
+
+		private Variant(String id, double width, double height, boolean tile) {
+			this.id = id;
+			this.width = width;
+			this.height = height;
+			this.tile = tile;
+		}
+
+		private static Variant tile(String id, double tileWidth) {
+			return new Variant(id, tileWidth, 0, true);
+		}
+
+		private void load(AssetCache cache) {
+			if (tile) {
+				cache.getTile(id, width);
+			} else {
+				cache.getScaled(id, width, height);
+			}
+		}
+	}
+}
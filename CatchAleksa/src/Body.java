@@ -0,0 +1,92 @@
+/**
+ * The Body class is the simulation state of a single object of the CatchAleksa
+ * game world: its kind, its sprite type and its bounding box. Obstacles and
+ * packages are relative to the formation they scroll with, see
+ * {@link GameSimulation#getWorldX(Body)}. Bodies are plain Java objects without
+ * any JavaFX dependency, so the {@link GameSimulation} can run headless. The
+ * view displays every body by an {@link Entity}.
+ *
+ * @author Florin
+ */
+public class Body {
+
+	private final int id;
+	private EntityKind kind;
+	private int type;
+	private double x;
+	private double y;
+	private double width;
+	private double height;
+
+	/**
+	 * Constructs a new Body.
+	 *
+	 * @param id     The id of the body within its simulation, or -1 if it is not
+	 *               part of a simulation.
+	 * @param kind   The kind of the body.
+	 * @param type   The sprite type of the body (e.g. the obstacle number - 1).
+	 * @param x      The x-coordinate of the body.
+	 * @param y      The y-coordinate of the body.
+	 * @param width  The width of the body.
+	 * @param height The height of the body.
+	 */
+	public Body(int id, EntityKind kind, int type, double x, double y, double width, double height) {
+		this.id = id;
+		reset(kind, type, x, y, width, height);
+	}
+
+	/**
+	 * Reconfigures a reused body.
+	 *
+	 * @param kind   The new kind of the body.
+	 * @param type   The new sprite type of the body.
+	 * @param x      The new x-coordinate of the body.
+	 * @param y      The new y-coordinate of the body.
+	 * @param width  The new width of the body.
+	 * @param height The new height of the body.
+	 */
+	public void reset(EntityKind kind, int type, double x, double y, double width, double height) {
+		this.kind = kind;
+		this.type = type;
+		this.x = x;
+		this.y = y;
+		this.width = width;
+		this.height = height;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public EntityKind getKind() {
+		return kind;
+	}
+
+	public int getType() {
+		return type;
+	}
+
+	public double getX() {
+		return x;
+	}
+
+	public void setX(double x) {
+		this.x = x;
+	}
+
+	public double getY() {
+		return y;
+	}
+
+	public void setY(double y) {
+		this.y = y;
+	}
+
+	public double getWidth() {
+		return width;
+	}
+
+	public double getHeight() {
+		return height;
+	}
+}
@@ -0,0 +1,82 @@
+import java.util.List;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+
+/**
+ * The CanvasRenderer class is an alternative renderer for the play field of the
+ * CatchAleksa game. Instead of keeping one ImageView per sprite in the scene
+ * graph, the background, the player, the fence strip, the obstacles and the
+ * packages are drawn onto a single Canvas each frame, straight from the entity
+ * state and the {@link ScrollingLayer}s.
+ * Controls like the restart button and Cody's dialogs stay regular nodes on top
+ * of the canvas.
+ *
+ * The renderer is enabled by starting the game with
+ * {@code -Dcatchaleksa.canvas=true}.
+ *
+ * @author Florin
+ */
+public class CanvasRenderer {
+
+	private final Canvas canvas;
+	private final GraphicsContext graphics;
+
+	/**
+	 * Constructs a new CanvasRenderer with a canvas of the given size.
+	 *
+	 * @param width  The width of the canvas.
+	 * @param height The height of the canvas.
+	 */
+	public CanvasRenderer(double width, double height) {
+		this.canvas = new Canvas(width, height);
+		this.graphics = canvas.getGraphicsContext2D();
+	}
+
+	/**
+	 * Returns the canvas the play field is drawn onto.
+	 *
+	 * @return The Canvas node.
+	 */
+	public Canvas getCanvas() {
+		return canvas;
+	}
+
+	/**
+	 * Draws one frame of the play field.
+	 *
+	 * @param background The background ImageView.
+	 * @param scenery    The scrolling background, or null.
+	 * @param character  The ImageView of the player character.
+	 * @param fences     The fence strip.
+	 * @param registry   The registry holding the entities of the game.
+	 * @param formationX The x-coordinate of the obstacle formation.
+	 */
+	public void render(ImageView background, ScrollingLayer scenery, ImageView character, ScrollingLayer fences,
+			EntityRegistry registry, double formationX) {
+		graphics.drawImage(background.getImage(), 0, 0, canvas.getWidth(), canvas.getHeight());
+		if (scenery != null) {
+			scenery.draw(graphics);
+		}
+		graphics.drawImage(character.getImage(), character.getLayoutX(), character.getLayoutY());
+		fences.draw(graphics);
+		draw(registry.get(EntityKind.OBSTACLE), formationX);
+		draw(registry.get(EntityKind.PACKAGE), formationX);
+	}
+
+	/**
+	 * Draws the given entities near the screen at their current position and
+	 * size, moved by the given offset.
+	 */
+	private void draw(List<Entity> entities, double offsetX) {
+		for (Entity entity : entities) {
+			Image image = entity.getImage();
+			if (image != null && entity.isNearViewport(offsetX)) {
+				graphics.drawImage(image, offsetX + entity.getX(), entity.getY(), entity.getWidth(),
+						entity.getHeight());
+			}
+		}
+	}
+}
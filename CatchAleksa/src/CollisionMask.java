@@ -0,0 +1,142 @@
+import java.awt.image.BufferedImage;
+
+/**
+ * The CollisionMask class holds the opaque pixels of a sprite, packed into one
+ * bit per pixel and 64 pixels per long. It is computed once from the alpha
+ * channel of the sprite, at the size the sprite is shown at, so two sprites can
+ * be tested for overlapping opaque pixels by ANDing whole words instead of
+ * looking at single pixels.
+ *
+ * Masks are immutable and can be shared between simulations.
+ *
+ * @author Florin
+ */
+public class CollisionMask {
+
+	// Pixels with a higher alpha value count as opaque
+	private static final int ALPHA_THRESHOLD = 127;
+
+	private final int width, height;
+	private final int wordsPerRow;
+	// row by row, bit x of a row is bit (x % 64) of word (x / 64)
+	private final long[] bits;
+
+	/**
+	 * Constructs a new CollisionMask from the alpha channel of the given image,
+	 * scaled to the given size the same way the sprite is scaled on the screen.
+	 *
+	 * @param image  The sprite.
+	 * @param width  The width the sprite is shown at.
+	 * @param height The height the sprite is shown at.
+	 */
+	public CollisionMask(BufferedImage image, int width, int height) {
+		this.width = width;
+		this.height = height;
+		this.wordsPerRow = (width + 63) >>> 6;
+		this.bits = new long[wordsPerRow * height];
+		for (int y = 0; y < height; y++) {
+			// sample the source pixel under the center of the target pixel
+			int sourceY = (int) ((y + 0.5) * image.getHeight() / height);
+			for (int x = 0; x < width; x++) {
+				int sourceX = (int) ((x + 0.5) * image.getWidth() / width);
+				if (image.getRGB(sourceX, sourceY) >>> 24 > ALPHA_THRESHOLD) {
+					bits[y * wordsPerRow + (x >>> 6)] |= 1L << (x & 63);
+				}
+			}
+		}
+	}
+
+	private CollisionMask(int width, int height, long[] bits) {
+		this.width = width;
+		this.height = height;
+		this.wordsPerRow = (width + 63) >>> 6;
+		this.bits = bits;
+	}
+
+	/**
+	 * Returns a mask with the opaque pixels of both masks, e.g. of all frames of
+	 * an animation.
+	 *
+	 * @param other A mask of the same size.
+	 * @return The combined mask.
+	 */
+	public CollisionMask union(CollisionMask other) {
+		if (other.width != width || other.height != height) {
+			throw new IllegalArgumentException("Masks of different sizes: " + width + "x" + height + " and "
+					+ other.width + "x" + other.height);
+		}
+		long[] union = new long[bits.length];
+		for (int i = 0; i < bits.length; i++) {
+			union[i] = bits[i] | other.bits[i];
+		}
+		return new CollisionMask(width, height, union);
+	}
+
+	/**
+	 * Checks if this mask and another mask have an opaque pixel in common. Only
+	 * the rows and words of the overlapping rectangle are compared.
+	 *
+	 * @param other The other mask.
+	 * @param dx    The x-coordinate of the other mask relative to this one.
+	 * @param dy    The y-coordinate of the other mask relative to this one.
+	 * @return True if the masks overlap; otherwise, false.
+	 */
+	public boolean overlaps(CollisionMask other, int dx, int dy) {
+		int x0 = Math.max(0, dx);
+		int x1 = Math.min(width, dx + other.width);
+		int y0 = Math.max(0, dy);
+		int y1 = Math.min(height, dy + other.height);
+		if (x0 >= x1 || y0 >= y1) {
+			return false;
+		}
+		for (int y = y0; y < y1; y++) {
+			int row = y * wordsPerRow;
+			int otherRow = (y - dy) * other.wordsPerRow;
+			for (int x = x0; x < x1; x += 64) {
+				long overlap = wordAt(row, x) & other.wordAt(otherRow, x - dx);
+				int count = x1 - x;
+				if (count < 64) {
+					overlap &= (1L << count) - 1;
+				}
+				if (overlap != 0) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the 64 bits of a row starting at the given pixel.
+	 */
+	private long wordAt(int row, int x) {
+		int word = x >>> 6;
+		int shift = x & 63;
+		long value = bits[row + word] >>> shift;
+		if (shift != 0 && word + 1 < wordsPerRow) {
+			value |= bits[row + word + 1] << (64 - shift);
+		}
+		return value;
+	}
+
+	/**
+	 * Checks if the pixel at the given position is opaque.
+	 *
+	 * @param x The x-coordinate of the pixel.
+	 * @param y The y-coordinate of the pixel.
+	 * @return True if the pixel is opaque; otherwise, false.
+	 */
+	public boolean isOpaque(int x, int y) {
+		return (bits[y * wordsPerRow + (x >>> 6)] & 1L << (x & 63)) != 0;
+	}
+
+	/*-----Getter-----*/
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+}
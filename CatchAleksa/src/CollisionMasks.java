@@ -0,0 +1,124 @@
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.imageio.ImageIO;
+
+/**
+ * The CollisionMasks class holds the {@link CollisionMask}s the
+ * {@link GameSimulation} tests collisions with: one of the player, combining
+ * all walking frames, and one per obstacle type, at the size of an obstacle
+ * body. The sprites are read with ImageIO from the {@link AssetBundle}, or from
+ * the classpath without one, so the masks are available without JavaFX, e.g. in
+ * headless sessions. The game computes them once in the preload of the
+ * {@link AssetCache} and passes them to its {@link GameSimulation}.
+ *
+ * @author Florin
+ */
+public class CollisionMasks {
+
+	private static final String[] PLAYER_IMAGE_PATHS = { "Assets/WalkingAnimation/Back.png",
+			"Assets/WalkingAnimation/BackLeft.png", "Assets/WalkingAnimation/BackRight.png",
+			"Assets/WalkingAnimation/Front.png", "Assets/WalkingAnimation/FrontLeft.png",
+			"Assets/WalkingAnimation/FrontRight.png", "Assets/WalkingAnimation/Left.png",
+			"Assets/WalkingAnimation/LeftLeft.png", "Assets/WalkingAnimation/LeftRight.png",
+			"Assets/WalkingAnimation/Right.png", "Assets/WalkingAnimation/RightLeft.png",
+			"Assets/WalkingAnimation/RightRight.png" };
+
+	private static CollisionMasks defaultMasks;
+	private static boolean loaded = false;
+
+	private final CollisionMask player;
+	private final CollisionMask[] obstacles;
+
+	/**
+	 * Constructs a new CollisionMasks.
+	 *
+	 * @param player    The mask of the player.
+	 * @param obstacles The masks of the obstacles by type.
+	 */
+	public CollisionMasks(CollisionMask player, CollisionMask[] obstacles) {
+		this.player = player;
+		this.obstacles = obstacles.clone();
+	}
+
+	/**
+	 * Returns the masks of the game's sprites for simulations created without
+	 * masks, e.g. by headless sessions and replays. They are computed on the
+	 * first call only. If the sprites cannot be read, the simulation falls back
+	 * to testing the bounding boxes.
+	 *
+	 * @return The shared masks, or null if the sprites are not available.
+	 */
+	public static synchronized CollisionMasks loadDefault() {
+		if (!loaded) {
+			loaded = true;
+			try {
+				defaultMasks = load(AssetBundle.openDefault());
+			} catch (IOException e) {
+				// the simulation tests the bounding boxes instead
+				e.printStackTrace();
+			}
+		}
+		return defaultMasks;
+	}
+
+	/**
+	 * Computes the masks from the sprites in the given bundle.
+	 *
+	 * @param bundle The bundle to read the sprites from, or null to read them
+	 *               from the classpath.
+	 * @return The masks.
+	 * @throws IOException If a sprite cannot be read.
+	 */
+	public static CollisionMasks load(AssetBundle bundle) throws IOException {
+		int playerWidth = (int) GameSimulation.PLAYER_WIDTH;
+		int playerHeight = (int) GameSimulation.PLAYER_HEIGHT;
+		CollisionMask player = null;
+		for (String path : PLAYER_IMAGE_PATHS) {
+			CollisionMask frame = new CollisionMask(read(bundle, path), playerWidth, playerHeight);
+			player = player == null ? frame : player.union(frame);
+		}
+
+		CollisionMask[] obstacles = new CollisionMask[GameSimulation.OBSTACLE_IMAGES.length];
+		for (int i = 0; i < obstacles.length; i++) {
+			obstacles[i] = new CollisionMask(read(bundle, GameSimulation.OBSTACLE_IMAGES[i]), (int) GameSimulation.OBSTACLE_WIDTH,
+					(int) GameSimulation.OBSTACLE_HEIGHT);
+		}
+		return new CollisionMasks(player, obstacles);
+	}
+
+	/**
+	 * Reads a sprite from the bundle, or from the classpath if it is not packed.
+	 */
+	private static BufferedImage read(AssetBundle bundle, String path) throws IOException {
+		InputStream in = bundle != null && bundle.contains(path) ? bundle.open(path)
+				: CollisionMasks.class.getClassLoader().getResourceAsStream(path);
+		if (in == null) {
+			throw new IOException("Sprite not found: " + path);
+		}
+		try (in) {
+			BufferedImage image = ImageIO.read(in);
+			if (image == null) {
+				throw new IOException("Unsupported image: " + path);
+			}
+			return image;
+		}
+	}
+
+	/*-----Getter-----*/
+
+	public CollisionMask getPlayer() {
+		return player;
+	}
+
+	/**
+	 * Returns the mask of the given obstacle type.
+	 *
+	 * @param type The obstacle type.
+	 * @return The mask at the size of an obstacle body.
+	 */
+	public CollisionMask getObstacle(int type) {
+		return obstacles[type];
+	}
+}
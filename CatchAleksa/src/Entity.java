@@ -0,0 +1,137 @@
+import javafx.scene.Node;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+
+/**
+ * The Entity class displays a single object of the CatchAleksa game world, such
+ * as an obstacle, a package or an element of the HUD. It holds the
+ * kind of the entity, the JavaFX node that displays it and the {@link Body} with
+ * its position and size in world coordinates. The simulation only changes the
+ * body; the node is moved to the new position by {@link #sync()} when the frame
+ * is rendered, or the image of the entity is drawn by the
+ * {@link CanvasRenderer}. Entities far off the screen are culled by
+ * {@link #syncVisible(double)}.
+ *
+ * @author Florin
+ */
+public class Entity {
+
+	private final EntityKind kind;
+	private final Node view;
+	private Image image;
+	private Body body;
+
+	/**
+	 * Constructs a new Entity with its own body and places its node at the given
+	 * position. The size is taken from the fit size or the image of the node if it
+	 * is an ImageView.
+	 *
+	 * @param kind The kind of the entity.
+	 * @param view The JavaFX node displaying the entity.
+	 * @param x    The x-coordinate of the entity.
+	 * @param y    The y-coordinate of the entity.
+	 */
+	public Entity(EntityKind kind, Node view, double x, double y) {
+		this.kind = kind;
+		this.view = view;
+		double width = 0;
+		double height = 0;
+		if (view instanceof ImageView) {
+			ImageView imageView = (ImageView) view;
+			this.image = imageView.getImage();
+			width = imageView.getFitWidth() > 0 ? imageView.getFitWidth() : image.getWidth();
+			height = imageView.getFitHeight() > 0 ? imageView.getFitHeight() : image.getHeight();
+		}
+		this.body = new Body(-1, kind, 0, x, y, width, height);
+		sync();
+	}
+
+	/**
+	 * Reconfigures a pooled entity to display another body with a new image. Only
+	 * entities displayed by an ImageView can be reconfigured. An image of the
+	 * size of the body is drawn 1:1; any other image is scaled to the body.
+	 *
+	 * @param image The new image of the entity.
+	 * @param body  The body the entity displays from now on.
+	 */
+	public void reset(Image image, Body body) {
+		ImageView imageView = (ImageView) view;
+		imageView.setImage(image);
+		boolean exact = image.getWidth() == body.getWidth() && image.getHeight() == body.getHeight();
+		imageView.setFitWidth(exact ? 0 : body.getWidth());
+		imageView.setFitHeight(exact ? 0 : body.getHeight());
+		this.image = image;
+		this.body = body;
+		sync();
+	}
+
+	/**
+	 * Moves the node of the entity to the current position of its body.
+	 */
+	public void sync() {
+		view.relocate(body.getX(), body.getY());
+	}
+
+	/**
+	 * Shows the node of the entity at the current position of its body if the
+	 * body is near the screen, and hides it otherwise. A hidden node is neither
+	 * moved nor rendered and does not count towards the bounds of its parent.
+	 *
+	 * @param offsetX The x-coordinate of the parent on the screen, e.g. of the
+	 *                obstacle formation.
+	 * @return True if the entity is near the screen; otherwise, false.
+	 */
+	public boolean syncVisible(double offsetX) {
+		boolean near = isNearViewport(offsetX);
+		if (near) {
+			sync();
+		}
+		if (view.isVisible() != near) {
+			view.setVisible(near);
+		}
+		return near;
+	}
+
+	/**
+	 * Checks if the body of the entity is on the screen or within
+	 * {@link GameSimulation#VIEWPORT_MARGIN} of it.
+	 *
+	 * @param offsetX The x-coordinate of the parent on the screen.
+	 * @return True if the entity is near the screen; otherwise, false.
+	 */
+	public boolean isNearViewport(double offsetX) {
+		return GameSimulation.isNearViewport(offsetX + body.getX(), body.getY(), body.getWidth(), body.getHeight());
+	}
+
+	public EntityKind getKind() {
+		return kind;
+	}
+
+	public Node getView() {
+		return view;
+	}
+
+	public Image getImage() {
+		return image;
+	}
+
+	public Body getBody() {
+		return body;
+	}
+
+	public double getX() {
+		return body.getX();
+	}
+
+	public double getY() {
+		return body.getY();
+	}
+
+	public double getWidth() {
+		return body.getWidth();
+	}
+
+	public double getHeight() {
+		return body.getHeight();
+	}
+}
@@ -0,0 +1,15 @@
+/**
+ * The EntityKind enum lists the kinds of entities in the CatchAleksa game. The
+ * kind of an entity is fixed when it is created and decides which collection of
+ * the {@link EntityRegistry} it belongs to.
+ *
+ * @author Florin
+ */
+public enum EntityKind {
+	/** An obstacle that costs the player a heart when touched. */
+	OBSTACLE,
+	/** A stolen package that is collected when touched. */
+	PACKAGE,
+	/** An element of the heads-up display (score, hearts, buttons). */
+	HUD
+}
@@ -0,0 +1,71 @@
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.scene.CacheHint;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+
+/**
+ * The EntityPool class keeps released entities of one kind for reuse. Instead of
+ * creating new entities (and their ImageViews) every round, spawning reconfigures
+ * a released entity with the new image and body. Once the pool holds
+ * as many entities as a round needs, round transitions do not allocate anymore.
+ *
+ * @author Florin
+ */
+public class EntityPool {
+
+	private final EntityKind kind;
+	private final List<Entity> free = new ArrayList<>();
+
+	/**
+	 * Constructs a new, empty EntityPool for entities of the given kind.
+	 *
+	 * @param kind The kind of the pooled entities.
+	 */
+	public EntityPool(EntityKind kind) {
+		this.kind = kind;
+	}
+
+	/**
+	 * Returns an entity displaying the given body with the given image. A released
+	 * entity is reused if there is one; otherwise, a new one is created.
+	 *
+	 * @param image The image of the entity.
+	 * @param body  The body the entity displays.
+	 * @return The configured entity.
+	 */
+	public Entity acquire(Image image, Body body) {
+		Entity entity;
+		if (free.isEmpty()) {
+			ImageView view = new ImageView(image);
+			// pooled sprites only move, so their cached bitmap stays valid
+			view.setCache(true);
+			view.setCacheHint(CacheHint.SPEED);
+			entity = new Entity(kind, view, body.getX(), body.getY());
+		} else {
+			entity = free.remove(free.size() - 1);
+		}
+		entity.reset(image, body);
+		return entity;
+	}
+
+	/**
+	 * Returns an entity to the pool. The entity must not be used anymore until it
+	 * is acquired again.
+	 *
+	 * @param entity The entity to release.
+	 */
+	public void release(Entity entity) {
+		free.add(entity);
+	}
+
+	/**
+	 * Returns the number of entities waiting for reuse.
+	 *
+	 * @return The number of free entities.
+	 */
+	public int getFreeCount() {
+		return free.size();
+	}
+}
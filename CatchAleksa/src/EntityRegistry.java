@@ -0,0 +1,121 @@
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
+
+/**
+ * The EntityRegistry class keeps track of all entities of the CatchAleksa game
+ * world. Obstacles, packages and HUD elements are held in separate
+ * collections, so per-tick updates and round cleanup only iterate the entities
+ * they are interested in instead of scanning the whole scene graph. The fence
+ * is not an entity: it is a single {@link ScrollingLayer}.
+ *
+ * The registry also attaches the nodes of the entities to the scene: every kind
+ * can be given a layer (the children of a Group) to which the nodes of that kind
+ * are added and from which they are removed again. Kinds without a layer are
+ * not part of the scene graph, e.g. when they are drawn by a
+ * {@link CanvasRenderer}.
+ *
+ * @author Florin
+ */
+public class EntityRegistry {
+
+	private final Map<EntityKind, List<Entity>> entities = new EnumMap<>(EntityKind.class);
+	private final Map<EntityKind, ObservableList<Node>> layers = new EnumMap<>(EntityKind.class);
+	// reused by clear(), so clearing a kind does not allocate
+	private final List<Node> removedViews = new ArrayList<>();
+
+	/**
+	 * Constructs a new, empty EntityRegistry.
+	 */
+	public EntityRegistry() {
+		for (EntityKind kind : EntityKind.values()) {
+			entities.put(kind, new ArrayList<>());
+		}
+	}
+
+	/**
+	 * Sets the layer to which the nodes of the given kind are attached.
+	 *
+	 * @param kind  The kind of entities.
+	 * @param layer The children of the Group the nodes are added to, or null if
+	 *              the nodes should not be attached to the scene.
+	 */
+	public void setLayer(EntityKind kind, ObservableList<Node> layer) {
+		layers.put(kind, layer);
+	}
+
+	/**
+	 * Adds an entity to the collection of its kind and its node to the layer of
+	 * its kind.
+	 *
+	 * @param entity The entity to add.
+	 */
+	public void add(Entity entity) {
+		entities.get(entity.getKind()).add(entity);
+		ObservableList<Node> layer = layers.get(entity.getKind());
+		if (layer != null) {
+			layer.add(entity.getView());
+		}
+	}
+
+	/**
+	 * Removes an entity from the collection of its kind and its node from the
+	 * layer of its kind.
+	 *
+	 * @param entity The entity to remove.
+	 * @return True if the entity was registered; otherwise, false.
+	 */
+	public boolean remove(Entity entity) {
+		ObservableList<Node> layer = layers.get(entity.getKind());
+		if (layer != null) {
+			layer.remove(entity.getView());
+		}
+		return entities.get(entity.getKind()).remove(entity);
+	}
+
+	/**
+	 * Returns the live collection of all entities of the given kind.
+	 *
+	 * @param kind The kind of entities.
+	 * @return The entities of the given kind.
+	 */
+	public List<Entity> get(EntityKind kind) {
+		return entities.get(kind);
+	}
+
+	/**
+	 * Returns the number of registered entities of all kinds.
+	 *
+	 * @return The total number of entities.
+	 */
+	public int size() {
+		int size = 0;
+		for (List<Entity> list : entities.values()) {
+			size += list.size();
+		}
+		return size;
+	}
+
+	/**
+	 * Removes all entities of the given kind from the registry and their nodes
+	 * from the layer of that kind.
+	 *
+	 * @param kind The kind of entities to remove.
+	 */
+	public void clear(EntityKind kind) {
+		List<Entity> list = entities.get(kind);
+		ObservableList<Node> layer = layers.get(kind);
+		if (layer != null) {
+			for (Entity entity : list) {
+				removedViews.add(entity.getView());
+			}
+			layer.removeAll(removedViews);
+			removedViews.clear();
+		}
+		list.clear();
+	}
+}
@@ -1,112 +1,72 @@
-import java.util.ArrayList;
-import java.util.List;
-
-import javafx.collections.ObservableList;
-import javafx.scene.Group;
-import javafx.scene.Node;
-import javafx.scene.Scene;
 import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
 
 /**
- * The FenceController class manages the creation, movement, and removal of
- * fences in the CatchAleksa game. It provides methods for moving fences
- * horizontally, spawning a row of fences on the lower part of the screen, and
- * clearing fences from the scene. Fences are represented by ImageView objects
- * displaying the "FenceSide.png" image.
+ * The FenceController class displays the fences in the CatchAleksa game. The
+ * fence on the lower part of the screen is a single {@link ScrollingLayer}
+ * repeating the "FenceSide.png" image at the fence spacing of the current
+ * level. The image keeps its own width, so at the default spacing neighbouring
+ * fences overlap by a few pixels, as they always did. The
+ * {@link GameSimulation} only keeps the distance the fence has scrolled; this
+ * class moves the strip to it.
  *
  * @author Florin
  */
 public class FenceController {
-	private static final double W = 1920;
+
+	// Constants for screen dimensions
 	private static final double H = 1080;
 
+	public static final String FENCE_IMAGE = "Assets/Fences/FenceSide.png";
+
+	private AssetCache assets = AssetCache.getInstance();
+	private ScrollingLayer fenceStrip;
+	// the spacing the fence tile is currently composed for
+	private double spacing;
+
 	/**
-	 * Moves all fences in the specified scene horizontally with the given speed. If
-	 * a fence moves off the screen, its position is reset to the right.
+	 * Constructs a new FenceController.
 	 *
-	 * @param scene The JavaFX scene containing the fences.
-	 * @param speed The speed at which the fences move horizontally.
-	 * @return The updated JavaFX scene.
+	 * @param level The level the strip is created for; the spacing follows the
+	 *              level passed to {@link #update}.
 	 */
-	public Scene moveFences(Scene scene, double speed) {
-		ObservableList<Node> children = ((Group) scene.getRoot()).getChildren();
-		for (Node node : children) {
-			if (node instanceof ImageView) {
-				ImageView fenceImageView = (ImageView) node;
-				Image fenceImage = fenceImageView.getImage();
-
-				if (fenceImage != null && fenceImage.getUrl().contains("FenceSide.png")) {
-					double newX = fenceImageView.getLayoutX() - speed;
-					fenceImageView.relocate(newX, fenceImageView.getLayoutY());
-
-					// If the fence moves off the screen, reset its position to the right
-					if (newX + fenceImageView.getBoundsInLocal().getWidth() < 0) {
-						fenceImageView.relocate(W, fenceImageView.getLayoutY());
-					}
-				}
-			}
-		}
-		return scene;
+	public FenceController(Level level) {
+		this.spacing = level.getFenceSpacing();
 	}
 
 	/**
-	 * Adds a row of fences to the lower part of the screen in the specified scene.
-	 * The fences are represented by ImageView objects with the "FenceSide.png"
-	 * image.
+	 * Returns the strip of fences, creating it on the first call.
 	 *
-	 * @param scene The JavaFX scene to which the row of fences will be added.
-	 * @return The updated JavaFX scene.
+	 * @return The fence strip.
 	 */
-	public Scene addLowerRowOfFences(Scene scene) {
-		// Spawn a row of fences on the lower part of the screen
-		double fenceWidth = 138;
-		double fenceHeight = 95;
-		int numberOfFences = 16;
-
-		// Calculate the starting position for the row
-		double startX = (W - (numberOfFences * fenceWidth)) / 2; // Centered on the screen
-		double startY = H - fenceHeight; // At the bottom of the screen
-
-		for (int i = 0; i < numberOfFences; i++) {
-			// Create ImageView for each fence
-			ImageView fence = new ImageView(new Image(("Assets/Fences/FenceSide.png")));
-
-			// Position the fence
-			double fenceX = startX + i * fenceWidth;
-			double fenceY = startY;
-
-			// Set the position
-			fence.relocate(fenceX, fenceY);
-
-			((Group) scene.getRoot()).getChildren().add(fence);
-
+	public ScrollingLayer getFenceStrip() {
+		if (fenceStrip == null) {
+			fenceStrip = new ScrollingLayer(fenceImage(), H - 95, spacing, GameSimulation.FENCE_HEIGHT, 1);
 		}
-		return scene;
+		return fenceStrip;
 	}
 
 	/**
-	 * Clears all fences from the specified scene. This method removes ImageView
-	 * objects representing fences with the "FenceSide.png" image.
+	 * Moves the fence strip to the given scroll distance, with the spacing of
+	 * the given level. The strip is hidden in levels without fences.
 	 *
-	 * @param scene The JavaFX scene from which fences will be cleared.
-	 * @return The updated JavaFX scene.
+	 * @param level  The current level.
+	 * @param scroll The distance the fences have scrolled.
+	 * @param shown  True while a round is played.
 	 */
-	public Scene clearFences(Scene scene) {
-		ObservableList<Node> children = ((Group) scene.getRoot()).getChildren();
-		List<Node> fencesToRemove = new ArrayList<>();
-		for (Node node : children) {
-			if (node instanceof ImageView) {
-				ImageView fence = (ImageView) node;
-				if (fence.getImage() != null && fence.getImage().getUrl().contains("FenceSide")) {
-					// If the node is a fence, add it to the list for removal
-					fencesToRemove.add(fence);
-				}
-			}
+	public void update(Level level, double scroll, boolean shown) {
+		ScrollingLayer strip = getFenceStrip();
+		strip.setVisible(shown && level.hasFences());
+		if (level.getFenceSpacing() != spacing) {
+			spacing = level.getFenceSpacing();
+			strip.setTile(fenceImage(), spacing);
 		}
+		strip.scrollTo(scroll);
+	}
 
-		// Remove fences from the scene
-		children.removeAll(fencesToRemove);
-		return scene;
+	/**
+	 * Returns the tile of the fence image repeated at the current spacing.
+	 */
+	private Image fenceImage() {
+		return assets.getTile(FENCE_IMAGE, spacing);
 	}
 }
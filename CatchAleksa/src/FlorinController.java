@@ -1,13 +1,10 @@
-import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
-import javafx.collections.ObservableList;
 import javafx.animation.*;
 import javafx.event.Event;
 import javafx.event.EventHandler;
-import javafx.geometry.Bounds;
 import javafx.scene.*;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -16,71 +13,121 @@ import javafx.scene.input.*;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 import javafx.util.*;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * The FlorinController class manages the gameplay logic and user interaction in
- * the CatchAleksa game. It controls the movement of the player character,
- * handles user input, and orchestrates various game elements. This class is
- * also responsible for managing obstacles, fences, and updating the game state.
- * Extends Thread to handle certain game aspects in a separate thread.
+ * The FlorinController class manages the user interaction in the CatchAleksa
+ * game. The game rules live in a {@link GameSimulation}; this class feeds it
+ * with the player's input, follows its changes as {@link SimulationListener}
+ * and displays the player character, the obstacles, the fences and the HUD.
+ * With {@code -Dcatchaleksa.simthread=true} the simulation runs on a
+ * {@link SimulationThread} instead, and this class renders the snapshots it
+ * publishes.
  *
  * @author Florin
  */
-public class FlorinController extends Thread {
+public class FlorinController implements SimulationListener {
+	private GameSimulation simulation;
+	// plays back a recorded session instead of the keyboard input, if set
+	private InputReplay replay;
+	private boolean fastForward = Boolean.getBoolean("catchaleksa.replay.fast");
+	// records the session for a later replay, if set
+	private InputRecorder recorder;
+	private boolean endlessMode = Boolean.getBoolean("catchaleksa.endless");
+	// runs the simulation on its own thread, if enabled
+	private SimulationThread simulationThread;
+	// the state of the simulation thread shown in the current frame
+	private WorldSnapshot snapshot;
+	// the bodies of the shown snapshot, indexed by body id
+	private List<Body> mirrorBodies = new ArrayList<>();
+	// the frame in which each body id was last part of a snapshot
+	private int[] seenInFrame = new int[0];
+	private int frame = 0;
+	private int sentInput = 0;
+	private boolean shownGameOver = false;
+	private EntityRegistry registry = new EntityRegistry();
+	// the entity displaying each body, indexed by body id
+	private List<Entity> entitiesByBody = new ArrayList<>();
 	private ObstacleController oc = new ObstacleController(this);
-	private FenceController fc = new FenceController();
+	private FenceController fc;
 	private GUIController gc = new GUIController(this);
-	private volatile boolean isIdle = false;
-	private boolean isPhoneAnimationRunning = false;
-	private Timeline phoneAnimationTimeline;
+	private AssetCache assets = AssetCache.getInstance();
+	// idle time after which the phone animation starts
+	private static final Duration IDLE_THRESHOLD = Duration.seconds(10);
+	// restarted on every key press, fires once when the player is idle
+	private PauseTransition idleTimer = new PauseTransition(IDLE_THRESHOLD);
 	private static final double W = 1920, H = 1080;
 	private boolean goNorth, goSouth, goEast, goWest;
-	private int upImageIndex = 0;
-	private int downImageIndex = 0;
-	private int leftImageIndex = 0;
-	private int rightImageIndex = 0;
-	private boolean isChangingImage = false;
-	private AtomicLong lastInteractionTime = new AtomicLong(System.currentTimeMillis());
 	private ImageView character;
+	// walking, standing and phone frames of the character
+	private SpriteAnimator animator;
 	private ImageView background = gc.getStartImageView();
 	private Scene scene;
 	private String playerImage = gc.getplayerImage();
-	private static boolean spaceBool = false;
-	private boolean fenceAnimationRunning = false;
-	private Timeline fenceTimeline;
-	private int heartsNumber = 3;
-	private Map<ImageView, Timeline> obstacleTimelines = new HashMap<>();
-	private Integer packagesFound = 0;
-	private int badObstacle = 0;
+	private boolean spaceBool = false;
+	private WorldLoop loop;
+	private boolean stopped = false;
+	// draws the play field onto a single canvas instead of one node per sprite
+	private CanvasRenderer canvasRenderer;
+	// frame times, toggled with F3
+	private PerformanceOverlay performanceOverlay;
 	private SimpleIntegerProperty packagesFoundProperty = new SimpleIntegerProperty(0);
 	private Cody cody;
-	public Button restart;
-	public ImageView score;
-	public Label labl;
-	private Duration frameDuration = Duration.millis(200);
+	// created once, updated through dirty flags
+	private HudLayer hud;
+	// holds the obstacles and packages, scrolled as a whole by its translateX
+	private Group formation = new Group();
+	// parallax background behind the player, only with -Dcatchaleksa.parallax
+	private ScrollingLayer scenery;
 	private StringBuffer cheatCodeBuffer = new StringBuffer();
-	private int currentRound = 0;
-	private int packagesNeeded = 0;
-	private int packagesFoundThisRound = 0;
-	private static int firstRun = 0;
-
-	// Images
-	static List<Image> imagesBack = new ArrayList<>();
-	static List<Image> imagesFront = new ArrayList<>();
-	static List<Image> imagesLeft = new ArrayList<>();
-	static List<Image> imagesRight = new ArrayList<>();
-
-	static List<Image> imagesBushes = new ArrayList<>();
-	static List<Image> imagesFences = new ArrayList<>();
+	private int firstRun = 0;
 
 	/**
 	 * Constructs a new FlorinController and initializes necessary components.
+	 * With {@code -Dcatchaleksa.replay=<file>} the session recorded in the file is
+	 * played back; with {@code -Dcatchaleksa.record=<file>} the session is
+	 * recorded. A replay always runs on the JavaFX thread.
 	 */
 	public FlorinController() {
-		this.character = new ImageView(new Image((playerImage)));
-		this.phoneAnimationTimeline = new Timeline();
+		// the collision masks were computed by the preload, so nothing is decoded here
+		CollisionMasks masks = assets.getCollisionMasks();
+		String replayFile = System.getProperty("catchaleksa.replay");
+		if (replayFile != null) {
+			try {
+				replay = new InputReplay(Paths.get(replayFile));
+				this.simulation = replay.newSimulation(LevelLoader.loadDefault(), masks);
+			} catch (IOException e) {
+				e.printStackTrace();
+				replay = null;
+			}
+		}
+		if (simulation == null) {
+			this.simulation = new GameSimulation(System.nanoTime(), LevelLoader.loadDefault(), masks);
+		}
+		this.fc = new FenceController(simulation.getLevel());
+		String recordFile = System.getProperty("catchaleksa.record");
+		if (recordFile != null) {
+			try {
+				recorder = new InputRecorder(Paths.get(recordFile), simulation.getSeed(),
+						simulation.hasCollisionMasks());
+				// only for abrupt exits; a regular exit goes through endSession()
+				Runtime.getRuntime().addShutdownHook(new Thread(this::closeSession));
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		if (Boolean.getBoolean("catchaleksa.simthread") && replay == null) {
+			// the snapshots replace the listener callbacks
+			simulationThread = new SimulationThread(simulation, recorder);
+			snapshot = simulationThread.latest();
+		} else {
+			simulation.setListener(this);
+		}
+		this.character = new ImageView(assets.get(playerImage));
+		this.animator = createAnimator();
+		idleTimer.setOnFinished(event -> phoneAnimation());
 		packagesFoundProperty.addListener(new ChangeListener<Number>() {
 			@Override
 			public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
@@ -96,20 +143,42 @@ public class FlorinController extends Thread {
 	 */
 	public void startGame() {
 //		System.out.println("start of startgame");
-		imagesBack.add(new Image(("Assets/WalkingAnimation/BackLeft.png")));
-		imagesBack.add(new Image(("Assets/WalkingAnimation/BackRight.png")));
-		imagesFront.add(new Image(("Assets/WalkingAnimation/FrontLeft.png")));
-		imagesFront.add(new Image(("Assets/WalkingAnimation/FrontRight.png")));
-		imagesLeft.add(new Image(("Assets/WalkingAnimation/LeftLeft.png")));
-		imagesLeft.add(new Image(("Assets/WalkingAnimation/LeftRight.png")));
-		imagesRight.add(new Image(("Assets/WalkingAnimation/RightLeft.png")));
-		imagesRight.add(new Image(("Assets/WalkingAnimation/RightRight.png")));
 		// Methods
-		checkIdleTime();
-		moveCharacterTo(W / 2, H / 2);
-		Group playerGroup = new Group(background, character);
+		idleTimer.playFromStart();
+		character.relocate(getPlayerX(), getPlayerY());
+		double parallax = Double.parseDouble(System.getProperty("catchaleksa.parallax", "0"));
+		if (parallax != 0) {
+			scenery = new ScrollingLayer(gc.getGameBackground(), 0, W, H, parallax);
+			scenery.setVisible(false);
+		}
+		Group playerGroup;
+		if (Boolean.getBoolean("catchaleksa.canvas")) {
+			canvasRenderer = new CanvasRenderer(W, H);
+			playerGroup = new Group(canvasRenderer.getCanvas());
+		} else {
+			playerGroup = new Group(background);
+			if (scenery != null) {
+				playerGroup.getChildren().add(scenery.getNode());
+			}
+			playerGroup.getChildren().addAll(character, fc.getFenceStrip().getNode(), formation);
+		}
 
 		this.scene = new Scene(playerGroup, W, H, Color.ALICEBLUE);
+		// in canvas mode the play field is drawn, so only the HUD is attached
+		boolean attached = canvasRenderer == null;
+		registry.setLayer(EntityKind.OBSTACLE, attached ? formation.getChildren() : null);
+		registry.setLayer(EntityKind.PACKAGE, attached ? formation.getChildren() : null);
+		hud = gc.createHud(() -> {
+			// Callback function to be executed when the button is pressed
+			if (replay == null) {
+				startNewGame();
+			}
+		});
+		playerGroup.getChildren().add(hud.getGroup());
+		registry.setLayer(EntityKind.HUD, hud.getGroup().getChildren());
+		for (Entity entity : hud.getEntities()) {
+			registry.add(entity);
+		}
 		// cody intro
 		cody = new Cody();
 		String[] arr = {
@@ -133,32 +202,117 @@ public class FlorinController extends Thread {
 			}
 		});
 
-		AnimationTimer timer = new AnimationTimer() {
-			@Override
-			public void handle(long now) {
-				int dx = 0, dy = 0;
-				// speed
-				if (goNorth)
-					dy -= 2;
-				if (goSouth)
-					dy += 2;
-				if (goEast)
-					dx += 2;
-				if (goWest)
-					dx -= 2;
-
-				moveCharacterBy(dx, dy);
+		if (simulationThread != null) {
+			simulationThread.start();
+		}
+		loop = new WorldLoop(this);
+		FrameStats stats = loop.getStats();
+		scene.addPreLayoutPulseListener(stats::layoutStarted);
+		scene.addPostLayoutPulseListener(stats::layoutFinished);
+		stats.track(idleTimer);
+		performanceOverlay = new PerformanceOverlay(stats);
+		playerGroup.getChildren().add(performanceOverlay.getCanvas());
+		loop.start();
+	}
+
+	/**
+	 * Advances the game world by one tick: passes the pressed keys, or the input
+	 * of the replay, to the simulation and animates the player character. If the
+	 * simulation runs on its own thread, changed keys are sent to it instead.
+	 * Called by the {@link WorldLoop}.
+	 */
+	public void update() {
+		int input = 0;
+		if (replay != null) {
+			int event;
+			while ((event = replay.next(simulation.getTick())) != InputReplay.NONE) {
+				if (event == InputRecorder.START_ROUND || event == InputRecorder.START_ENDLESS) {
+					endlessMode = event == InputRecorder.START_ENDLESS;
+					startNewGame();
+				} else {
+					replay.apply(event, simulation);
+				}
+			}
+			if (replay.isFinished()) {
+				return;
+			}
+			input = replay.getInput();
+		} else {
+			if (goNorth)
+				input |= GameSimulation.NORTH;
+			if (goSouth)
+				input |= GameSimulation.SOUTH;
+			if (goEast)
+				input |= GameSimulation.EAST;
+			if (goWest)
+				input |= GameSimulation.WEST;
+		}
+		if (simulationThread != null) {
+			// keep the last sent input if the queue is full, so it is sent again
+			if (input != sentInput && simulationThread.sendInput(input)) {
+				sentInput = input;
+			}
+		} else {
+			if (recorder != null) {
+				recorder.input(simulation.getTick(), input);
 			}
-		};
-		timer.start();
+			simulation.tick(input);
+		}
+
+		int dx = 0, dy = 0;
+		if ((input & GameSimulation.NORTH) != 0)
+			dy -= 1;
+		if ((input & GameSimulation.SOUTH) != 0)
+			dy += 1;
+		if ((input & GameSimulation.EAST) != 0)
+			dx += 1;
+		if ((input & GameSimulation.WEST) != 0)
+			dx -= 1;
+		animator.update(GameSimulation.STEP, dx, dy);
 	}
 
 	/**
-	 * Stops all running timelines, including fence and obstacle animations.
+	 * Checks whether the world loop should run as many ticks as possible instead
+	 * of keeping real time, i.e. while fast-forwarding a replay.
+	 *
+	 * @return True while fast-forwarding; otherwise, false.
 	 */
-	private void stopAllTimelines() {
-		stopFenceAnimation();
-//		stopObstacleAnimations();
+	public boolean isFastForward() {
+		return fastForward && replay != null && !replay.isFinished();
+	}
+
+	/**
+	 * Moves the player character, the obstacle formation and the scrolling
+	 * layers to their current positions, or draws the play field in canvas mode,
+	 * and refreshes the performance overlay. Within the formation, a node only
+	 * moves when its obstacle wraps around. Entities far off the screen are
+	 * hidden. Called by the {@link WorldLoop} once per frame, after the
+	 * simulation steps.
+	 */
+	public void render() {
+		if (simulationThread != null) {
+			applySnapshot(simulationThread.latest());
+		}
+		character.relocate(getPlayerX(), getPlayerY());
+		double fenceScroll = getFenceScroll();
+		fc.update(getLevel(), fenceScroll, getCurrentRound() > 0 && !isGameOver());
+		if (scenery != null) {
+			scenery.scrollTo(fenceScroll);
+		}
+		if (canvasRenderer != null) {
+			canvasRenderer.render(background, scenery, character, fc.getFenceStrip(), registry, getFormationX());
+		} else {
+			double formationX = getFormationX();
+			formation.setTranslateX(formationX);
+			for (Entity obstacle : registry.get(EntityKind.OBSTACLE)) {
+				obstacle.syncVisible(formationX);
+			}
+			for (Entity obstacle : registry.get(EntityKind.PACKAGE)) {
+				obstacle.syncVisible(formationX);
+			}
+		}
+		hud.update();
+		performanceOverlay.update();
 	}
 
 	/**
@@ -167,9 +321,11 @@ public class FlorinController extends Thread {
 	 * @param event The KeyEvent representing the key press event.
 	 */
 	private void keyDOWN(KeyEvent event) {
-		lastInteractionTime.set(System.currentTimeMillis()); // Update the last interaction time
-		if (isIdle && isPhoneAnimationRunning) {
-			stopPhoneAnimation(); // Stop phone animation when there is player interaction
+		idleTimer.playFromStart(); // Re-arm the idle timer on every interaction
+		stopPhoneAnimation(); // Stop phone animation when there is player interaction
+		if (replay != null) {
+			// the input of a replay comes from its log only
+			return;
 		}
 		switch (event.getCode()) {
 		case UP:
@@ -185,7 +341,7 @@ public class FlorinController extends Thread {
 			goEast = true;
 			break;
 		case SPACE:
-			if (isPlayerOnStart(character.getLayoutX(), character.getLayoutY()) && !spaceBool) {
+			if (isPlayerOnStart() && !spaceBool) {
 				spaceBool = true;
 				// actual game
 				startNewGame();
@@ -198,35 +354,31 @@ public class FlorinController extends Thread {
 
 	/**
 	 * Handles key release events, updating player movement flags and processing
-	 * special keys. Shh.. there is an easter egg
+	 * special keys. Shh.. there is an easter egg. While replaying, only the keys
+	 * that do not change the game (F3 and ESCAPE) are handled, so the replay
+	 * stays in sync with its log.
 	 *
 	 * @param event The KeyEvent representing the key release event.
 	 */
 	private void keyUP(KeyEvent event) {
+		if (replay != null && event.getCode() != KeyCode.F3 && event.getCode() != KeyCode.ESCAPE) {
+			return;
+		}
 		switch (event.getCode()) {
 		case UP:
 			goNorth = false;
-			if (true) {
-				character.setImage(new Image(("Assets/WalkingAnimation/Back.png")));
-			}
 			break;
 		case DOWN:
 			goSouth = false;
-			if (true) {
-				character.setImage(new Image(("Assets/WalkingAnimation/Front.png")));
-			}
 			break;
 		case LEFT:
 			goWest = false;
-			if (isChangingImage) {
-				character.setImage(new Image(("Assets/WalkingAnimation/Left.png")));
-			}
 			break;
 		case RIGHT:
 			goEast = false;
-			if (isChangingImage) {
-				character.setImage(new Image(("Assets/WalkingAnimation/Right.png")));
-			}
+			break;
+		case F3:
+			performanceOverlay.toggle();
 			break;
 		case ESCAPE:
 			cody.quit();
@@ -262,8 +414,7 @@ public class FlorinController extends Thread {
 		// Check if the cheat code is entered
 		if (cheatCodeBuffer.toString().equals("HESOYAM")) {
 //			System.out.println("Cheat code activated: HESOYAM");
-			setHeartsNumber(4);
-			updateHearts();
+			setHeartsNumber(GameSimulation.MAX_HEARTS);
 			// Reset the buffer after successfully entering the cheat code
 			cheatCodeBuffer.setLength(0);
 		}
@@ -277,15 +428,25 @@ public class FlorinController extends Thread {
 	private void startNewGame() {
 
 //		System.out.println("Entered startNewGame()");
-		this.incrCurrentRound();
-		stopAllTimelines();
-		clearObstacles();
-		this.scene = fc.clearFences(this.scene);
+		// clears the previous round, moves the player to the starting position and
+		// spawns the fences and obstacles
+		if (simulationThread != null) {
+			simulationThread.sendCommand(endlessMode ? InputRecorder.START_ENDLESS : InputRecorder.START_ROUND, 0);
+		} else {
+			if (recorder != null) {
+				recorder.startRound(simulation.getTick(), endlessMode);
+			}
+			if (endlessMode) {
+				simulation.startEndless();
+			} else {
+				simulation.startRound();
+			}
+		}
 		// Reset background
 		background.setImage(gc.getGameBackground());
-
-		// Move character to starting position
-		moveCharacterTo(W / 4, H / 2);
+		if (scenery != null) {
+			scenery.setVisible(true);
+		}
 		if (firstRun == 0) {
 //			System.out.println("here");
 			cody.quit();
@@ -315,350 +476,178 @@ public class FlorinController extends Thread {
 
 		});
 
-		this.scene = gc.addInfoPannels(scene, 10, () -> {
-			// Callback function to be executed when the button is pressed
-			startNewGame();
-			this.setPackagesFoundThisRound(0);
-		});
-		this.scene = fc.addLowerRowOfFences(this.scene);
-		startFenceAnimation();
-		oc.spawnObstacles(); // vorher war: spawnObstacles();
-	}
-
-	/* ...............Obstacles Methods................. */
-
-	/**
-	 * Stops obstacle animations for all obstacles on the screen.
-	 */
-	private void stopObstacleAnimations() {
-		ObservableList<Node> children = ((Group) scene.getRoot()).getChildren();
-		for (Node node : children) {
-			if (node instanceof ImageView) {
-				ImageView obstacle = (ImageView) node;
-				if (obstacle.getImage() != null && obstacle.getImage().getUrl().contains("Obstacle")) {
-					// If the node is an obstacle, stop its animation and clear the timeline
-					stopObstacleAnimation(obstacle);
-				}
-			}
+		// with a simulation thread, the HUD follows the snapshots
+		if (simulationThread == null) {
+			hud.setStage(simulation.getCurrentRound());
+			hud.setPackages(simulation.getPackagesFound());
+			hud.setHearts(simulation.getHearts());
 		}
+		hud.show();
 	}
 
+	/* ...............Simulation Events................. */
+
 	/**
-	 * Stops the animation for a specific obstacle.
+	 * Shows a body that entered the simulation by an obstacle or package entity.
 	 *
-	 * @param obstacle The ImageView representing the obstacle.
+	 * @param body The added body.
 	 */
-	private void stopObstacleAnimation(ImageView obstacle) {
-		// Retrieve the timeline associated with the obstacle
-		Timeline obstacleTimeline = obstacleTimelines.get(obstacle);
-
-		if (obstacleTimeline != null) {
-			// Stop the timeline
-			obstacleTimeline.stop();
-
-			// Remove the timeline from the map
-			obstacleTimelines.remove(obstacle);
+	@Override
+	public void bodyAdded(Body body) {
+		Entity entity = oc.showObstacle(body);
+		while (entitiesByBody.size() <= body.getId()) {
+			entitiesByBody.add(null);
 		}
+		entitiesByBody.set(body.getId(), entity);
+		registry.add(entity);
 	}
 
 	/**
-	 * Clears all obstacles from the game scene and stops their animations.
+	 * Removes the entity of a body that left the simulation and returns it to its
+	 * pool.
+	 *
+	 * @param body The removed body.
 	 */
-	private void clearObstacles() {
-		ObservableList<Node> children = ((Group) scene.getRoot()).getChildren();
-		List<Node> obstaclesToRemove = new ArrayList<>();
-		for (Node node : children) {
-			if (node instanceof ImageView) {
-				ImageView obstacle = (ImageView) node;
-				if (obstacle.getImage() != null && obstacle.getImage().getUrl().contains("Obstacle")) {
-					// If the node is an obstacle, add it to the list for removal and clear the
-					// timeline
-					obstaclesToRemove.add(obstacle);
-					stopObstacleAnimation(obstacle);
-				}
-			}
-		}
-
-		// Remove obstacles from the scene
-		children.removeAll(obstaclesToRemove);
+	@Override
+	public void bodyRemoved(Body body) {
+		Entity entity = entitiesByBody.set(body.getId(), null);
+		registry.remove(entity);
+		oc.hideObstacle(entity);
 	}
 
 	/**
-	 * Checks if the center point of the player is colliding with the image center
+	 * Updates the package counter when a package is collected.
+	 *
+	 * @param packagesFound The total number of packages found.
 	 */
-	public boolean isPlayerColliding(ImageView image) {
-		Bounds playerBounds = character.getBoundsInParent();
-		Bounds imageBounds = image.getBoundsInParent();
-
-		// Calculate the center points
-		double playerCenterX = playerBounds.getMinX() + playerBounds.getWidth() / 2.0;
-		double playerCenterY = playerBounds.getMinY() + playerBounds.getHeight() / 2.0;
-
-		double imageCenterX = imageBounds.getMinX() + imageBounds.getWidth() / 2.0;
-		double imageCenterY = imageBounds.getMinY() + imageBounds.getHeight() / 2.0;
-
-		// Define a threshold for collision
-		double collisionThresholdX = (playerBounds.getWidth() + imageBounds.getWidth()) / 4.0;
-		double collisionThresholdY = (playerBounds.getHeight() + imageBounds.getHeight()) / 4.0;
-
-		// Check for intersection based on the center points and threshold
-		return Math.abs(playerCenterX - imageCenterX) < collisionThresholdX
-				&& Math.abs(playerCenterY - imageCenterY) < collisionThresholdY;
-	}
-
-	public void startObstacleAnimation(ImageView obstacle, double initialX, double initialY) {
-
-		obstacle.getProperties().put("counted", false);
-		obstacle.getProperties().put("countedpackages", false);
-
-		Timeline obstacleTimeline = new Timeline(new KeyFrame(Duration.millis(16), event -> {
-			double obstacleSpeed = 2; // speed of obstacle movement
-			double newX = obstacle.getLayoutX() - obstacleSpeed;
-			obstacle.relocate(newX, obstacle.getLayoutY());
-
-			// Check for collision with the player
-			if (isPlayerColliding(obstacle)) {
-				if (obstacle.getImage().getUrl().contains("Obstacle9")
-						|| obstacle.getImage().getUrl().contains("Obstacle7")
-						|| obstacle.getImage().getUrl().contains("Obstacle8")) {
-					// If it's a special obstacle and hasn't been counted yet, increment
-					// packagesFound
-					if (!(boolean) obstacle.getProperties().get("countedpackages")) {
-						packagesFoundProperty.set(packagesFoundProperty.get() + 1);
-						this.setPackagesFoundThisRound(this.getPackagesFoundThisRound() + 1);
-//						System.out.println(this.getPackagesFoundThisRound());
-						obstacle.getProperties().put("countedpackages", true); // Mark as counted
-					}
-				} else {
-					if (!(boolean) obstacle.getProperties().get("counted")) {
-						badObstacle++;
-//						System.out.println("bad Obastacles touched: " + badObstacle);
-						obstacle.getProperties().put("counted", true); // Mark as counted
-						updateHearts();
-					}
-				}
-				removeObstacle(obstacle);
-			}
-
-			// If the obstacle moves off the screen, reset its position to the right
-			if (newX + obstacle.getBoundsInLocal().getWidth() < 0) {
-				double resetX = W + 50; // the initial X position of reset obstacles
-				obstacle.relocate(resetX, initialY);
-			}
-		}));
-		obstacleTimeline.setCycleCount(Timeline.INDEFINITE);
-		obstacleTimeline.play();
-
-		// Store the Timeline associated with the obstacle
-		obstacleTimelines.put(obstacle, obstacleTimeline);
-	}
-
-	public void removeObstacle(ImageView obstacle) {
-		// Stop the obstacle's animation
-		stopObstacleAnimation(obstacle);
-
-		// Remove the obstacle from the scene
-		((Group) scene.getRoot()).getChildren().remove(obstacle);
-
-		// Remove the obstacle from the map
-		obstacleTimelines.remove(obstacle);
+	@Override
+	public void packageCollected(int packagesFound) {
+		packagesFoundProperty.set(packagesFound);
 	}
 
 	/**
 	 * Updates the hearts display based on the current number of remaining lives.
-	 * Displays the corresponding heart image.
+	 * The HUD shows the new heart image with the next frame.
+	 *
+	 * @param heartsNumber The remaining hearts.
 	 */
-	private void updateHearts() {
-		heartsNumber--;
-		if (heartsNumber >= 0) {
-			Platform.runLater(() -> {
-				ImageView hearts = new ImageView(
-						new Image(("Assets/Hearts/Hearts" + heartsNumber + ".png")));
-				double xh = W - (30 + 204);
-				double y = 30;
-				hearts.relocate(xh, y + 20);
-				((Group) scene.getRoot()).getChildren().add(hearts);
-			});
-		} else {
-			// game over
-
-			clearObstacles();
-			this.scene = fc.clearFences(scene);
-			stopAllTimelines();
-			((Group) scene.getRoot()).getChildren().remove(restart);
-			((Group) scene.getRoot()).getChildren().remove(labl);
-			((Group) scene.getRoot()).getChildren().remove(score);
-
-			cody = new Cody();
-			String[] s = {
-					"Oh no! The stolen packages remain elusive. Fear not, brave adventurer, for even in defeat, lessons are learned. Return to the digital realm with newfound wisdom and sharpened skills.",
-					"Press ESCAPE to exit" };
-			cody.relocate(W / 4, H / 2);
-			((Group) scene.getRoot()).getChildren().add(cody);
-			cody.say(s);
-		}
+	@Override
+	public void heartsChanged(int heartsNumber) {
+		hud.setHearts(heartsNumber);
 	}
 
-	/* ...............Obstacles Methods............ */
-
-	/* ...............Fences Stuff................. */
 	/**
-	 * Starts the animation for the moving fences at the bottom of the screen.
+	 * Hides the HUD and lets Cody announce the end of the game. The simulation
+	 * has already removed all obstacles and fences.
 	 */
-	private void startFenceAnimation() {
-		if (!fenceAnimationRunning) {
-			fenceTimeline = new Timeline(new KeyFrame(Duration.millis(16), event -> {
-				this.scene = fc.moveFences(this.scene, 2); // the speed of fence movement
-			}));
-			fenceTimeline.setCycleCount(Timeline.INDEFINITE);
-			fenceTimeline.play();
-			fenceAnimationRunning = true;
-		}
+	@Override
+	public void gameOver() {
+		hud.hide();
+
+		cody = new Cody();
+		String[] s = {
+				"Oh no! The stolen packages remain elusive. Fear not, brave adventurer, for even in defeat, lessons are learned. Return to the digital realm with newfound wisdom and sharpened skills.",
+				"Press ESCAPE to exit" };
+		cody.relocate(W / 4, H / 2);
+		((Group) scene.getRoot()).getChildren().add(cody);
+		cody.say(s);
 	}
 
 	/**
-	 * Stops the animation for the moving fences.
+	 * Shows the state of a snapshot of the simulation thread: bodies that are new
+	 * in the snapshot get an entity, bodies that are gone lose theirs, and all
+	 * others are moved. Changed counters are passed to the HUD, and the end of the
+	 * game is announced once.
+	 *
+	 * @param latest The latest snapshot.
 	 */
-	private void stopFenceAnimation() {
-		if (fenceAnimationRunning) {
-			fenceTimeline.stop();
-			fenceAnimationRunning = false;
+	private void applySnapshot(WorldSnapshot latest) {
+		snapshot = latest;
+		frame++;
+		for (int i = 0; i < latest.getBodyCount(); i++) {
+			int id = latest.getId(i);
+			while (mirrorBodies.size() <= id) {
+				mirrorBodies.add(new Body(mirrorBodies.size(), EntityKind.OBSTACLE, 0, 0, 0, 0, 0));
+			}
+			if (seenInFrame.length <= id) {
+				seenInFrame = Arrays.copyOf(seenInFrame, Math.max(64, id * 2));
+			}
+			seenInFrame[id] = frame;
+
+			Body mirror = mirrorBodies.get(id);
+			boolean shown = id < entitiesByBody.size() && entitiesByBody.get(id) != null;
+			// a reused id may now belong to a body of another kind or type
+			if (shown && (mirror.getKind() != latest.getKind(i) || mirror.getType() != latest.getType(i))) {
+				bodyRemoved(mirror);
+				shown = false;
+			}
+			if (shown) {
+				mirror.setX(latest.getX(i));
+				mirror.setY(latest.getY(i));
+			} else {
+				mirror.reset(latest.getKind(i), latest.getType(i), latest.getX(i), latest.getY(i),
+						latest.getWidth(i), latest.getHeight(i));
+				bodyAdded(mirror);
+			}
 		}
-	}
-	/* ........................................... */
-
-	private void moveCharacterBy(double dx, double dy) {
-		if (dx == 0 && dy == 0)
-			return;
-
-		final double cx = character.getBoundsInLocal().getWidth() / 2;
-		final double cy = character.getBoundsInLocal().getHeight() / 2;
-
-		double x = cx + character.getLayoutX() + dx;
-		double y = cy + character.getLayoutY() + dy;
-
-		// Calculate the length of the movement vector
-		double length = Math.sqrt(dx * dx + dy * dy);
-
-		// Normalize the movement vector to have a consistent speed in all directions
-		if (length > 0) {
-			dx = (dx / length) * 2;
-			dy = (dy / length) * 2;
-		}
-
-		if (!isChangingImage) {
-			if (dy < 0) {
-				// Moving UP
-				changeCharacterImage(imagesBack.get(upImageIndex), (long) frameDuration.toMillis());
-				upImageIndex = (upImageIndex + 1) % imagesBack.size();
-			} else if (dy > 0) {
-				// Moving DOWN
-				changeCharacterImage(imagesFront.get(downImageIndex), (long) frameDuration.toMillis());
-				downImageIndex = (downImageIndex + 1) % imagesFront.size();
-			} else if (dx < 0) {
-				// Moving LEFT
-				changeCharacterImage(imagesLeft.get(leftImageIndex), (long) frameDuration.toMillis());
-				leftImageIndex = (leftImageIndex + 1) % imagesLeft.size();
-			} else if (dx > 0) {
-				// Moving RIGHT
-				changeCharacterImage(imagesRight.get(rightImageIndex), (long) frameDuration.toMillis());
-				rightImageIndex = (rightImageIndex + 1) % imagesRight.size();
+		for (int id = 0; id < entitiesByBody.size(); id++) {
+			if (entitiesByBody.get(id) != null && (id >= seenInFrame.length || seenInFrame[id] != frame)) {
+				bodyRemoved(mirrorBodies.get(id));
 			}
 		}
 
-		moveCharacterTo(x, y);
-	}
-
-	private void changeCharacterImage(Image newImage, long delayMillis) {
-		isChangingImage = true;
-		character.setImage(newImage);
-
-		Timeline delayTimeline = new Timeline(new KeyFrame(Duration.millis(delayMillis), event -> {
-			isChangingImage = false;
-		}));
-		delayTimeline.setCycleCount(1);
-		delayTimeline.play();
+		packagesFoundProperty.set(latest.getPackagesFound());
+		hud.setStage(latest.getRound());
+		hud.setHearts(latest.getHearts());
+		if (latest.isGameOver() && !shownGameOver) {
+			shownGameOver = true;
+			gameOver();
+		}
 	}
 
-	private void moveCharacterTo(double x, double y) {
-		final double cx = character.getBoundsInLocal().getWidth() / 2;
-		final double cy = character.getBoundsInLocal().getHeight() / 2;
+	/* ...............Character Animation................. */
 
-		if (x - cx >= 0 && x + cx <= W && y - cy >= 0 && y + cy <= H) {
-			character.relocate(x - cx, y - cy);
+	/**
+	 * Creates the animator of the player character with the standing, walking
+	 * and phone frames from the asset cache.
+	 *
+	 * @return The SpriteAnimator of the character.
+	 */
+	private SpriteAnimator createAnimator() {
+		String path = "Assets/WalkingAnimation/";
+		Image[] standFrames = new Image[4];
+		Image[][] walkFrames = new Image[4][];
+		String[] names = new String[4];
+		names[SpriteAnimator.NORTH] = "Back";
+		names[SpriteAnimator.SOUTH] = "Front";
+		names[SpriteAnimator.WEST] = "Left";
+		names[SpriteAnimator.EAST] = "Right";
+		for (int i = 0; i < names.length; i++) {
+			standFrames[i] = assets.get(path + names[i] + ".png");
+			walkFrames[i] = new Image[] { assets.get(path + names[i] + "Left.png"),
+					assets.get(path + names[i] + "Right.png") };
+		}
+		Image[] phoneFrames = new Image[9];
+		for (int i = 0; i < phoneFrames.length; i++) {
+			phoneFrames[i] = assets.get("Assets/IdlePhoneAnimation/IdlePhone" + (i + 1) + ".png");
 		}
+		return new SpriteAnimator(character, standFrames, walkFrames, phoneFrames);
 	}
 
 	/**
-	 * Initiates the phone idle animation when the player is idle for a certain
-	 * duration. The idle animation is displayed on the player character.
+	 * Starts the phone idle animation on the player character. Called once by the
+	 * idle timer when the player has not pressed a key for
+	 * {@link #IDLE_THRESHOLD}.
 	 */
 	public void phoneAnimation() {
-		Image[] idleFrames = new Image[9];
-		for (int i = 0; i < 9; i++) {
-			idleFrames[i] = new Image(("Assets/IdlePhoneAnimation/IdlePhone" + (i + 1) + ".png"));
-		}
-
-		int[] frameIndex = { 0 };
-
-		phoneAnimationTimeline = new Timeline(new KeyFrame(frameDuration, event -> {
-			Platform.runLater(() -> {
-				if (isIdle) {
-					character.setImage(idleFrames[frameIndex[0]]);
-					frameIndex[0] = (frameIndex[0] + 1) % 9;
-				}
-			});
-		}));
-
-		phoneAnimationTimeline.setCycleCount(Timeline.INDEFINITE);
-		phoneAnimationTimeline.play();
-		isPhoneAnimationRunning = true; // Sets the flag to indicate the phone animation is running
+		animator.startPhone();
 	}
 
 	/**
 	 * Stops the phone idle animation.
 	 */
 	public void stopPhoneAnimation() {
-		if (phoneAnimationTimeline != null) {
-			phoneAnimationTimeline.stop();
-			isPhoneAnimationRunning = false; // Sets the flag to indicate the phone animation is not running
-		}
-	}
-
-	/**
-	 * Checks the idle time of the player to trigger the phone idle animation when
-	 * idle for a specified duration. Runs as a separate thread to continuously
-	 * monitor player activity.
-	 */
-	public void checkIdleTime() {
-		Thread idleChecker = new Thread(() -> {
-			long idleThreshold = 10000; // idle threshold in milliseconds (10s)
-			while (true) {
-				long currentTime = System.currentTimeMillis();
-				long timeSinceLastInteraction = currentTime - lastInteractionTime.get();
-				if (timeSinceLastInteraction >= idleThreshold) {
-					isIdle = true;
-					if (!isPhoneAnimationRunning) {
-						Platform.runLater(() -> phoneAnimation());
-
-					}
-				} else {
-					if (isPhoneAnimationRunning) {
-						Platform.runLater(() -> stopPhoneAnimation());
-					}
-					isIdle = false; // The player is not idle
-				}
-
-				try {
-					Thread.sleep(1000); // Check idle time every 1 second
-				} catch (InterruptedException e) {
-					e.printStackTrace();
-				}
-			}
-		});
-
-		idleChecker.setDaemon(true);
-		idleChecker.start();
+		animator.stopPhone();
 	}
 
 	/**
@@ -667,26 +656,48 @@ public class FlorinController extends Thread {
 	 * @param newValue The new value to be displayed.
 	 */
 	private void updatePackagesLabel(int newValue) {
-		Platform.runLater(() -> {
-			// Update the label text with the new packagesFound value
-			gc.getLbl().setText(Integer.toString(newValue));
-		});
+		// the label text is updated with the next frame
+		hud.setPackages(newValue);
 	}
 
 	/**
-	 * Checks if the player is on the starting point based on the player's
-	 * coordinates.
-	 *
-	 * @param playerX The X-coordinate of the player.
-	 * @param playerY The Y-coordinate of the player.
-	 * @return True if the player is on the starting point; otherwise, false.
+	 * Ends the session: stops the world loop and the simulation thread and closes
+	 * the recorder at the last simulated tick. Called on the JavaFX thread when
+	 * the game is closed; further calls do nothing.
 	 */
-	private boolean isPlayerOnStart(double playerX, double playerY) {
-		return (playerX > 1550 && playerY > 350 && playerY < 500);
+	public void endSession() {
+		if (stopped) {
+			return;
+		}
+		stopped = true;
+		if (loop != null) {
+			loop.stop();
+		}
+		closeSession();
+	}
+
+	/**
+	 * Stops the simulation thread, which closes the recorder, and waits for it.
+	 * Closes the recorder here if it is not closed yet.
+	 */
+	private void closeSession() {
+		if (simulationThread != null) {
+			simulationThread.shutdown();
+			try {
+				simulationThread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		// after the join, the last tick of the simulation thread is visible here
+		if (recorder != null) {
+			recorder.close(simulation.getTick());
+		}
 	}
 
 	public void fireEvent() {
 
+		endSession();
 		CloseCatchAleksaEvent event = new CloseCatchAleksaEvent();
 		Event.fireEvent(scene, event);
 
@@ -694,8 +705,44 @@ public class FlorinController extends Thread {
 
 	/*-----Getter und Setter-----*/
 
+	public GameSimulation getSimulation() {
+		return simulation;
+	}
+
 	public Integer getPackagesFound() {
-		return packagesFound;
+		return snapshot != null ? snapshot.getPackagesFound() : simulation.getPackagesFound();
+	}
+
+	public double getPlayerX() {
+		return snapshot != null ? snapshot.getPlayerX() : simulation.getPlayerX();
+	}
+
+	public double getPlayerY() {
+		return snapshot != null ? snapshot.getPlayerY() : simulation.getPlayerY();
+	}
+
+	public double getFormationX() {
+		return snapshot != null ? snapshot.getFormationX() : simulation.getFormationX();
+	}
+
+	public double getFenceScroll() {
+		return snapshot != null ? snapshot.getFenceScroll() : simulation.getFenceScroll();
+	}
+
+	public Level getLevel() {
+		return snapshot != null ? snapshot.getLevel() : simulation.getLevel();
+	}
+
+	public boolean isGameOver() {
+		return snapshot != null ? snapshot.isGameOver() : simulation.isGameOver();
+	}
+
+	public boolean isPlayerOnStart() {
+		return snapshot != null ? snapshot.isPlayerOnStart() : simulation.isPlayerOnStart();
+	}
+
+	public boolean isReadyForNext() {
+		return snapshot != null ? snapshot.isReadyForNext() : simulation.isReadyForNext();
 	}
 
 	public ImageView getCharacter() {
@@ -703,11 +750,18 @@ public class FlorinController extends Thread {
 	}
 
 	public int getHeartsNumber() {
-		return heartsNumber;
+		return snapshot != null ? snapshot.getHearts() : simulation.getHearts();
 	}
 
 	public void setHeartsNumber(int heartsnumber) {
-		this.heartsNumber = heartsnumber;
+		if (simulationThread != null) {
+			simulationThread.sendCommand(InputRecorder.SET_HEARTS, heartsnumber);
+			return;
+		}
+		if (recorder != null) {
+			recorder.setHearts(simulation.getTick(), heartsnumber);
+		}
+		simulation.setHearts(heartsnumber);
 	}
 
 	public Scene getScene() {
@@ -718,12 +772,8 @@ public class FlorinController extends Thread {
 		this.scene = scene;
 	}
 
-	public Map getObstacleTimelines() {
-		return obstacleTimelines;
-	}
-
-	public void setObstacleTimelines(Map obstacleTimelines) {
-		this.obstacleTimelines = obstacleTimelines;
+	public EntityRegistry getRegistry() {
+		return registry;
 	}
 
 	public Cody getCody() {
@@ -734,20 +784,20 @@ public class FlorinController extends Thread {
 		this.cody = cody;
 	}
 
-	public Label getLabl() {
-		return labl;
+	public HudLayer getHud() {
+		return hud;
 	}
 
-	public void setLabl(Label labl) {
-		this.labl = labl;
+	public Label getLabl() {
+		return hud.getPackagesLabel();
 	}
 
 	public Button getButton() {
-		return restart;
+		return hud.getRestartButton();
 	}
 
 	public ImageView getScoreImage() {
-		return score;
+		return hud.getStageBadge();
 	}
 
 	public SimpleIntegerProperty getPackagesFoundProperty() {
@@ -759,43 +809,18 @@ public class FlorinController extends Thread {
 	}
 
 	public int getBadObstacle() {
-		return badObstacle;
-	}
-
-	public void setBadObstacle(int badObstacle) {
-		this.badObstacle = badObstacle;
+		return snapshot != null ? snapshot.getBadObstacles() : simulation.getBadObstacles();
 	}
 
 	public int getCurrentRound() {
-		if (this.currentRound >= 3)
-			this.currentRound = 3;
-		return currentRound;
-
-	}
-
-	public void incrCurrentRound() {
-		this.currentRound++;
-	}
-
-	public void setCurrentRound(int currentRound) {
-		this.currentRound = currentRound;
-		if (this.currentRound >= 3)
-			this.currentRound = 3;
+		return snapshot != null ? snapshot.getRound() : simulation.getCurrentRound();
 	}
 
 	public int getPackagesNeeded() {
-		return this.packagesNeeded;
-	}
-
-	public void setPackagesNeeded(int number) {
-		this.packagesNeeded = number;
+		return snapshot != null ? snapshot.getPackagesNeeded() : simulation.getPackagesNeeded();
 	}
 
 	public int getPackagesFoundThisRound() {
-		return this.packagesFoundThisRound;
-	}
-
-	public void setPackagesFoundThisRound(int number) {
-		this.packagesFoundThisRound = number;
+		return snapshot != null ? snapshot.getPackagesFoundThisRound() : simulation.getPackagesFoundThisRound();
 	}
 }
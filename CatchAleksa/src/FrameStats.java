@@ -0,0 +1,272 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+import javafx.animation.Animation;
+
+/**
+ * The FrameStats class records the timing of every frame of the CatchAleksa
+ * game. For each frame the {@link WorldLoop} reports the frame time, the time
+ * spent in the simulation steps and the time spent rendering; the stats add the
+ * layout time of the last pulse, the number of entities, the number of running
+ * Timelines and the bytes allocated by the JavaFX thread.
+ *
+ * Recording does not allocate: the last {@link #HISTORY} frames are kept in
+ * ring buffers for the rolling graph of the {@link PerformanceOverlay}, and
+ * their frame times are counted in a fixed histogram of 0.1 ms buckets, from
+ * which the percentiles are read. A frame leaves the histogram when the ring
+ * buffer overwrites it, so the percentiles and the maximum cover the same
+ * rolling window as the graph, and a stall is forgotten {@link #HISTORY} frames
+ * later. If the game is started with {@code -Dcatchaleksa.framestats=<file>},
+ * the summary and the recorded frames are written to that file when the
+ * application exits.
+ *
+ * @author Florin
+ */
+public class FrameStats {
+
+	// Number of frames kept for the rolling graph and the dump (10 s at 60 fps)
+	public static final int HISTORY = 600;
+
+	// Histogram of the frame times in the window: 0.1 ms buckets up to 100 ms, plus overflow
+	private static final double BUCKET_MS = 0.1;
+	private static final int BUCKETS = 1000;
+
+	private final int[] histogram = new int[BUCKETS + 1];
+	private long frames = 0;
+	// the longest frame of the whole session, for the dump
+	private double sessionMaxFrameMs = 0;
+
+	// ring buffers of the last HISTORY frames, head is the next slot to write
+	private final double[] frameMs = new double[HISTORY];
+	private final double[] updateMs = new double[HISTORY];
+	private final double[] renderMs = new double[HISTORY];
+	private final double[] layoutMs = new double[HISTORY];
+	private final int[] entityCounts = new int[HISTORY];
+	private final int[] timelineCounts = new int[HISTORY];
+	private final long[] allocatedBytes = new long[HISTORY];
+	private int head = 0;
+
+	private int liveTimelines = 0;
+	private long layoutStart = 0;
+	private double lastLayoutMs = 0;
+
+	private final com.sun.management.ThreadMXBean allocationBean;
+	private long lastAllocated = -1;
+
+	/**
+	 * Constructs new FrameStats. Frames must be recorded on the JavaFX
+	 * application thread, whose allocations are tracked.
+	 */
+	public FrameStats() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		// allocation counters are a HotSpot extension; without them the rate is 0
+		if (bean instanceof com.sun.management.ThreadMXBean
+				&& ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+			allocationBean = (com.sun.management.ThreadMXBean) bean;
+			allocationBean.setThreadAllocatedMemoryEnabled(true);
+		} else {
+			allocationBean = null;
+		}
+
+		String file = System.getProperty("catchaleksa.framestats");
+		if (file != null) {
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> dump(Paths.get(file))));
+		}
+	}
+
+	/**
+	 * Records one frame.
+	 *
+	 * @param frameNanos  The time since the previous frame.
+	 * @param updateNanos The time spent in the simulation steps of this frame.
+	 * @param renderNanos The time spent rendering this frame.
+	 * @param entities    The number of entities in the game world.
+	 */
+	public void record(long frameNanos, long updateNanos, long renderNanos, int entities) {
+		double ms = frameNanos / 1e6;
+		if (frames >= HISTORY) {
+			// the frame overwritten in the ring buffer leaves the window
+			histogram[bucket(frameMs[head])]--;
+		}
+		histogram[bucket(ms)]++;
+		frames++;
+		sessionMaxFrameMs = Math.max(sessionMaxFrameMs, ms);
+
+		frameMs[head] = ms;
+		updateMs[head] = updateNanos / 1e6;
+		renderMs[head] = renderNanos / 1e6;
+		layoutMs[head] = lastLayoutMs;
+		entityCounts[head] = entities;
+		timelineCounts[head] = liveTimelines;
+		allocatedBytes[head] = allocatedSinceLastFrame();
+		head = (head + 1) % HISTORY;
+	}
+
+	/**
+	 * Marks the start of the layout pass of a pulse. Registered as pre-layout
+	 * pulse listener of the scene.
+	 */
+	public void layoutStarted() {
+		layoutStart = System.nanoTime();
+	}
+
+	/**
+	 * Marks the end of the layout pass of a pulse. Registered as post-layout
+	 * pulse listener of the scene; the time is recorded with the next frame.
+	 */
+	public void layoutFinished() {
+		lastLayoutMs = (System.nanoTime() - layoutStart) / 1e6;
+	}
+
+	/**
+	 * Counts the given animation as live while it is running.
+	 *
+	 * @param animation The Timeline or Transition to track.
+	 */
+	public void track(Animation animation) {
+		animation.statusProperty().addListener((observable, oldStatus, newStatus) -> {
+			if (newStatus == Animation.Status.RUNNING && oldStatus == Animation.Status.STOPPED) {
+				liveTimelines++;
+			} else if (newStatus == Animation.Status.STOPPED) {
+				liveTimelines--;
+			}
+		});
+	}
+
+	/**
+	 * Returns the frame time below which the given share of the last
+	 * {@link #HISTORY} frames lies.
+	 *
+	 * @param percentile The percentile, e.g. 0.99.
+	 * @return The frame time in milliseconds, accurate to one histogram bucket.
+	 */
+	public double getPercentile(double percentile) {
+		long rank = (long) Math.ceil(percentile * Math.min(frames, HISTORY));
+		long count = 0;
+		for (int i = 0; i <= BUCKETS; i++) {
+			count += histogram[i];
+			if (count >= rank && count > 0) {
+				return (i + 1) * BUCKET_MS;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Returns the longest frame time of the last {@link #HISTORY} frames.
+	 *
+	 * @return The frame time in milliseconds.
+	 */
+	public double getMaxFrameMs() {
+		double max = 0;
+		int recorded = (int) Math.min(frames, HISTORY);
+		for (int i = 0; i < recorded; i++) {
+			max = Math.max(max, frameMs[i]);
+		}
+		return max;
+	}
+
+	/**
+	 * Returns the frame time of the frame recorded the given number of frames ago.
+	 *
+	 * @param framesAgo 0 for the last recorded frame, up to HISTORY - 1.
+	 * @return The frame time in milliseconds.
+	 */
+	public double getFrameMs(int framesAgo) {
+		return frameMs[index(framesAgo)];
+	}
+
+	/**
+	 * Returns the bytes the JavaFX thread allocated per second, averaged over the
+	 * last {@link #HISTORY} frames.
+	 *
+	 * @return The allocation rate in bytes per second.
+	 */
+	public double getAllocationRate() {
+		long bytes = 0;
+		double ms = 0;
+		for (int i = 0; i < HISTORY; i++) {
+			bytes += allocatedBytes[i];
+			ms += frameMs[i];
+		}
+		return ms > 0 ? bytes / (ms / 1000) : 0;
+	}
+
+	/**
+	 * Writes the summary and the recorded frames to the given file as CSV.
+	 *
+	 * @param file The file to write.
+	 */
+	public void dump(Path file) {
+		try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+			// percentiles and max of the last HISTORY frames, like the overlay
+			out.printf(Locale.ROOT, "# frames=%d p50=%.1fms p99=%.1fms max=%.2fms session_max=%.2fms alloc=%.0fB/s%n",
+					frames, getPercentile(0.5), getPercentile(0.99), getMaxFrameMs(), sessionMaxFrameMs,
+					getAllocationRate());
+			out.println("frame_ms,update_ms,render_ms,layout_ms,entities,timelines,allocated_bytes");
+			int recorded = (int) Math.min(frames, HISTORY);
+			for (int i = recorded - 1; i >= 0; i--) {
+				int j = index(i);
+				out.printf(Locale.ROOT, "%.3f,%.3f,%.3f,%.3f,%d,%d,%d%n", frameMs[j], updateMs[j], renderMs[j],
+						layoutMs[j], entityCounts[j], timelineCounts[j], allocatedBytes[j]);
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	private static int bucket(double ms) {
+		return Math.min((int) (ms / BUCKET_MS), BUCKETS);
+	}
+
+	private int index(int framesAgo) {
+		return (head - 1 - framesAgo + 2 * HISTORY) % HISTORY;
+	}
+
+	private long allocatedSinceLastFrame() {
+		if (allocationBean == null) {
+			return 0;
+		}
+		long allocated = allocationBean.getCurrentThreadAllocatedBytes();
+		long bytes = lastAllocated < 0 ? 0 : allocated - lastAllocated;
+		lastAllocated = allocated;
+		return bytes;
+	}
+
+	/*-----Getter-----*/
+
+	public long getFrames() {
+		return frames;
+	}
+
+	public double getSessionMaxFrameMs() {
+		return sessionMaxFrameMs;
+	}
+
+	public double getUpdateMs(int framesAgo) {
+		return updateMs[index(framesAgo)];
+	}
+
+	public double getRenderMs(int framesAgo) {
+		return renderMs[index(framesAgo)];
+	}
+
+	public double getLayoutMs(int framesAgo) {
+		return layoutMs[index(framesAgo)];
+	}
+
+	public int getEntityCount(int framesAgo) {
+		return entityCounts[index(framesAgo)];
+	}
+
+	public int getLiveTimelines() {
+		return liveTimelines;
+	}
+}
@@ -0,0 +1,748 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The GameSimulation class contains the rules of the CatchAleksa game: player
+ * movement, obstacle and fence scrolling, collisions, package counting, hearts
+ * and the progression through the rounds. It has no JavaFX dependency and is
+ * fully deterministic: given the same seed and the same input for every tick, it
+ * always produces the same game. The JavaFX controllers are a view over the
+ * simulation and follow its changes through a {@link SimulationListener}.
+ *
+ * The layout of every round is taken from a list of {@link Level}s. After the
+ * last level, the last one is played again. In endless mode there are no
+ * rounds: the obstacles are generated in chunks just right of the screen and
+ * removed once they leave it on the left, and the game gets harder with the
+ * distance travelled.
+ *
+ * @author Florin
+ */
+public class GameSimulation {
+
+	// Screen dimensions
+	public static final double W = 1920, H = 1080;
+	// Length of one tick in seconds
+	public static final double STEP = 1.0 / 60.0;
+
+	// Input bits for tick()
+	public static final int NORTH = 1, SOUTH = 2, EAST = 4, WEST = 8;
+
+	public static final double PLAYER_WIDTH = 122, PLAYER_HEIGHT = 181;
+	public static final double OBSTACLE_WIDTH = 190, OBSTACLE_HEIGHT = 100;
+	public static final double FENCE_WIDTH = 146, FENCE_HEIGHT = 103;
+	public static final int MAX_HEARTS = 3;
+	// Bodies farther off the screen are neither drawn nor checked for collisions
+	public static final double VIEWPORT_MARGIN = 200;
+
+	// speed in pixels per second
+	private static final double PLAYER_SPEED = 120;
+
+	// Columns generated at once in endless mode
+	public static final int CHUNK_COLUMNS = 3;
+	// Distance in pixels after which the endless mode gets one step harder
+	public static final double DIFFICULTY_DISTANCE = 3000;
+	public static final int MAX_DIFFICULTY = 10;
+
+	// Obstacle types 0-5 are obstacles, 6-8 are packages
+	public static final int OBSTACLE_TYPES = 6;
+	public static final int PACKAGE_TYPES = 3;
+	// Sprites by obstacle type, shown by the view and tested by the collision masks
+	public static final String[] OBSTACLE_IMAGES = { "Assets/Obstacles/Obstacle1.png",
+			"Assets/Obstacles/Obstacle2.png", "Assets/Obstacles/Obstacle3.png", "Assets/Obstacles/Obstacle4.png",
+			"Assets/Obstacles/Obstacle5.png", "Assets/Obstacles/Obstacle6.png", "Assets/Obstacles/Obstacle7.png",
+			"Assets/Obstacles/Obstacle8.png", "Assets/Obstacles/Obstacle9.png" };
+
+	private static final SimulationListener NO_LISTENER = new SimulationListener() {
+	};
+
+	private final long seed;
+	private final Random random;
+	private SimulationListener listener = NO_LISTENER;
+	private final List<Level> levels;
+	// opaque pixels of the sprites, or null to test the bounding boxes only
+	private final CollisionMasks masks;
+	// the level of the current round
+	private Level level;
+
+	private final ObstacleStore obstacles = new ObstacleStore();
+	private final ObstacleStore packages = new ObstacleStore();
+	private final List<Body> freeBodies = new ArrayList<>();
+	private int nextId = 0;
+
+	// grid positions, reshuffled every round
+	private int[] positions = new int[0];
+
+	private double playerX, playerY;
+	private int hearts = MAX_HEARTS;
+	private int round = 0;
+	private int packagesFound = 0;
+	private int packagesFoundThisRound = 0;
+	private int packagesNeeded = 0;
+	private int badObstacles = 0;
+	private boolean gameOver = false;
+	private long tick = 0;
+
+	private boolean endless = false;
+	// x-coordinate of the first column of the next chunk in endless mode
+	private double nextChunkX;
+	// distance the obstacles moved in endless mode
+	private double distance;
+	// world x-coordinate of the obstacle formation; obstacles and packages are
+	// stored relative to it, so scrolling them only moves the formation
+	private double formationX = 0;
+	// distance the fence strip has scrolled; the view repeats the strip from it
+	private double fenceScroll = 0;
+
+	/**
+	 * Constructs a new GameSimulation with the default levels and the default
+	 * collision masks, which are computed on first use. The player starts in the
+	 * middle of the screen.
+	 *
+	 * @param seed The seed of the random generator that lays out the obstacles.
+	 */
+	public GameSimulation(long seed) {
+		this(seed, LevelLoader.loadDefault());
+	}
+
+	/**
+	 * Constructs a new GameSimulation with the given levels and the default
+	 * collision masks, which are computed on first use. The player starts in the
+	 * middle of the screen.
+	 *
+	 * @param seed   The seed of the random generator that lays out the obstacles.
+	 * @param levels The levels of the rounds, at least one.
+	 */
+	public GameSimulation(long seed, List<Level> levels) {
+		this(seed, levels, CollisionMasks.loadDefault());
+	}
+
+	/**
+	 * Constructs a new GameSimulation with the given levels and collision masks.
+	 * The player starts in the middle of the screen.
+	 *
+	 * @param seed   The seed of the random generator that lays out the obstacles.
+	 * @param levels The levels of the rounds, at least one.
+	 * @param masks  The masks of the sprites, e.g. from the preload of the
+	 *               {@link AssetCache}, or null to test the bounding boxes only.
+	 */
+	public GameSimulation(long seed, List<Level> levels, CollisionMasks masks) {
+		if (levels.isEmpty()) {
+			throw new IllegalArgumentException("At least one level is needed");
+		}
+		this.seed = seed;
+		this.levels = levels;
+		this.masks = masks;
+		this.level = levels.get(0);
+		this.random = new Random(seed);
+		movePlayerTo(W / 2, H / 2);
+	}
+
+	/**
+	 * Sets the listener that is notified of the changes of the simulation.
+	 *
+	 * @param listener The listener, or null to remove it.
+	 */
+	public void setListener(SimulationListener listener) {
+		this.listener = listener != null ? listener : NO_LISTENER;
+	}
+
+	/**
+	 * Advances the simulation by one tick of {@link #STEP} seconds. Moves the
+	 * player according to the input, scrolls the obstacles and the fences, and
+	 * handles the collisions of the player with the obstacles.
+	 *
+	 * @param input The pressed directions as a combination of NORTH, SOUTH, EAST
+	 *              and WEST.
+	 */
+	public void tick(int input) {
+		int dx = 0, dy = 0;
+		if ((input & NORTH) != 0)
+			dy -= 1;
+		if ((input & SOUTH) != 0)
+			dy += 1;
+		if ((input & EAST) != 0)
+			dx += 1;
+		if ((input & WEST) != 0)
+			dx -= 1;
+		movePlayerBy(dx, dy, PLAYER_SPEED * STEP);
+
+		double obstacleDistance = getObstacleSpeed() * STEP;
+		formationX -= obstacleDistance;
+		wrapObstacles(obstacles);
+		wrapObstacles(packages);
+		fenceScroll += level.getFenceSpeed() * STEP;
+		if (endless) {
+			distance += obstacleDistance;
+			nextChunkX -= obstacleDistance;
+			streamChunks();
+		}
+		checkCollisions();
+		tick++;
+	}
+
+	/**
+	 * Starts the next round: clears the obstacles of the previous round, moves
+	 * the player to the starting position and spawns the obstacles of the level
+	 * of the new round.
+	 */
+	public void startRound() {
+		round++;
+		endless = false;
+		level = levels.get(Math.min(round, levels.size()) - 1);
+		packagesFoundThisRound = 0;
+		clearBodies();
+		movePlayerTo(W / 4, H / 2);
+		spawnObstacles(level.getColumns(), level.getRows(), level.getPackages());
+	}
+
+	/* ...............Player................. */
+
+	/**
+	 * Moves the player in the given direction. The direction is normalized, so
+	 * the player covers the same distance in all directions.
+	 *
+	 * @param dx       The horizontal direction.
+	 * @param dy       The vertical direction.
+	 * @param distance The distance in pixels to move.
+	 */
+	public void movePlayerBy(double dx, double dy, double distance) {
+		if (dx == 0 && dy == 0)
+			return;
+
+		// Normalize the movement vector to have a consistent speed in all directions
+		double length = Math.sqrt(dx * dx + dy * dy);
+		dx = (dx / length) * distance;
+		dy = (dy / length) * distance;
+
+		movePlayerTo(playerX + PLAYER_WIDTH / 2 + dx, playerY + PLAYER_HEIGHT / 2 + dy);
+	}
+
+	/**
+	 * Moves the center of the player to the given point, if the player stays
+	 * completely on the screen.
+	 *
+	 * @param x The x-coordinate of the new center.
+	 * @param y The y-coordinate of the new center.
+	 */
+	public void movePlayerTo(double x, double y) {
+		final double cx = PLAYER_WIDTH / 2;
+		final double cy = PLAYER_HEIGHT / 2;
+
+		if (x - cx >= 0 && x + cx <= W && y - cy >= 0 && y + cy <= H) {
+			playerX = x - cx;
+			playerY = y - cy;
+		}
+	}
+
+	/**
+	 * Checks if the player stands on the starting point of the start screen.
+	 *
+	 * @return True if the player is on the starting point; otherwise, false.
+	 */
+	public boolean isPlayerOnStart() {
+		return (playerX > 1550 && playerY > 350 && playerY < 500);
+	}
+
+	/* ...............Obstacles................. */
+
+	/**
+	 * Spawns obstacles in a grid right of the screen, with the spacing and the
+	 * obstacle mix of the current level. The packages are placed at random
+	 * positions of the grid. Public so that stress tests and benchmarks can spawn
+	 * larger grids than a regular round.
+	 *
+	 * @param columns            The number of columns of the grid.
+	 * @param rows               The number of rows of the grid.
+	 * @param goodObstaclesCount The number of packages among the obstacles.
+	 */
+	public void spawnObstacles(int columns, int rows, int goodObstaclesCount) {
+		double columnSpacing = level.getColumnSpacing();
+		double rowSpacing = level.getRowSpacing();
+
+		// Randomize the positions of good obstacles
+		if (positions.length != columns * rows) {
+			positions = new int[columns * rows];
+		}
+		for (int i = 0; i < positions.length; i++) {
+			positions[i] = i;
+		}
+		shuffle(positions);
+
+		int goodObstaclesSpawned = 0;
+		for (int position : positions) {
+			int row = position / columns;
+			int col = position % columns;
+
+			double x = W + col * (OBSTACLE_WIDTH + columnSpacing);
+			double y = H - OBSTACLE_HEIGHT - 100 - row * (OBSTACLE_HEIGHT + rowSpacing);
+
+			if (goodObstaclesSpawned < goodObstaclesCount) {
+				// one of the packages
+				addBody(EntityKind.PACKAGE, OBSTACLE_TYPES + random.nextInt(PACKAGE_TYPES), x, y, OBSTACLE_WIDTH,
+						OBSTACLE_HEIGHT);
+				goodObstaclesSpawned++;
+				packagesNeeded++;
+			} else {
+				// one of the other obstacles
+				addBody(EntityKind.OBSTACLE, level.getObstacleType(random.nextInt(level.getObstacleTypeCount())), x,
+						y, OBSTACLE_WIDTH, OBSTACLE_HEIGHT);
+			}
+		}
+	}
+
+	/**
+	 * Handles the given obstacles that the formation has moved off the screen:
+	 * their position is reset to the right, or they are removed in endless mode.
+	 * All other obstacles keep their position within the formation. The store is
+	 * only walked once its leftmost obstacle has left the screen.
+	 */
+	private void wrapObstacles(ObstacleStore store) {
+		// one pixel of margin, as the obstacles below add the coordinates in another order
+		if (formationX + store.getMinRight() >= 1) {
+			return;
+		}
+		// backwards, so a swap-remove only moves obstacles that were already handled
+		for (int i = store.size() - 1; i >= 0; i--) {
+			double x = formationX + store.getX(i);
+
+			// If the obstacle moves off the screen, reset its position to the right
+			if (x + store.getWidth(i) < 0) {
+				if (endless) {
+					removeSlot(store, i);
+					continue;
+				}
+				x = W + 50; // the initial X position of reset obstacles
+				store.setX(i, x - formationX);
+			}
+		}
+		store.updateMinRight();
+	}
+
+	/**
+	 * Handles collisions between the player and the obstacles, then the
+	 * packages.
+	 */
+	private void checkCollisions() {
+		collide(obstacles);
+		if (!gameOver) {
+			collide(packages);
+		}
+	}
+
+	/**
+	 * Handles collisions between the player and the given obstacles. The broad
+	 * phase of the store finds the obstacles near the player, in formation
+	 * coordinates; the exact collision test only runs for the ones whose bounding
+	 * box intersects the player. The player never leaves the screen, so these
+	 * are always near it.
+	 */
+	private void collide(ObstacleStore store) {
+		double left = playerX - formationX;
+		double right = left + PLAYER_WIDTH;
+		double top = playerY;
+		double bottom = playerY + PLAYER_HEIGHT;
+		int found = store.query(left, top, PLAYER_WIDTH, PLAYER_HEIGHT);
+		// backwards, so a swap-remove only moves obstacles that were already checked
+		for (int j = found - 1; j >= 0; j--) {
+			int i = store.getQueryResult(j);
+			double x = store.getX(i);
+			double y = store.getY(i);
+			if (x >= right || x + store.getWidth(i) <= left || y >= bottom || y + store.getHeight(i) <= top) {
+				continue;
+			}
+			if (!isPlayerColliding(formationX + x, y, store.getWidth(i), store.getHeight(i), store.getType(i))) {
+				continue;
+			}
+			// an obstacle is only counted once
+			Body obstacle = removeSlot(store, i);
+			if (obstacle.getKind() == EntityKind.PACKAGE) {
+				packagesFound++;
+				packagesFoundThisRound++;
+				listener.packageCollected(packagesFound);
+			} else {
+				badObstacles++;
+				loseHeart();
+				if (gameOver) {
+					// the game over has removed the remaining obstacles
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks if a box overlaps the screen extended by {@link #VIEWPORT_MARGIN} on
+	 * all sides.
+	 *
+	 * @return True if the box is on or near the screen; otherwise, false.
+	 */
+	public static boolean isNearViewport(double x, double y, double width, double height) {
+		return x + width > -VIEWPORT_MARGIN && x < W + VIEWPORT_MARGIN && y + height > -VIEWPORT_MARGIN
+				&& y < H + VIEWPORT_MARGIN;
+	}
+
+	/**
+	 * Checks if the player is colliding with the given body: if their bounding
+	 * boxes intersect and an opaque pixel of the player covers an opaque pixel of
+	 * the body. Without collision masks, or for a body of another size than its
+	 * mask, the center points are compared with {@link #isColliding}.
+	 *
+	 * @param body The body to check.
+	 * @return True if the player collides with the body; otherwise, false.
+	 */
+	public boolean isPlayerColliding(Body body) {
+		return isPlayerColliding(getWorldX(body), body.getY(), body.getWidth(), body.getHeight(), body.getType());
+	}
+
+	/**
+	 * Checks if the player is colliding with an obstacle of the given type at the
+	 * given position in world coordinates.
+	 */
+	private boolean isPlayerColliding(double x, double y, double width, double height, int type) {
+		CollisionMask mask = masks != null ? masks.getObstacle(type) : null;
+		if (mask == null || mask.getWidth() != width || mask.getHeight() != height) {
+			return isColliding(playerX, playerY, PLAYER_WIDTH, PLAYER_HEIGHT, x, y, width, height);
+		}
+		if (x >= playerX + PLAYER_WIDTH || x + width <= playerX || y >= playerY + PLAYER_HEIGHT
+				|| y + height <= playerY) {
+			return false;
+		}
+		return masks.getPlayer().overlaps(mask, (int) Math.round(x - playerX), (int) Math.round(y - playerY));
+	}
+
+	/**
+	 * Checks if the center points of two boxes are closer than a quarter of their
+	 * summed sizes, in both directions.
+	 *
+	 * @return True if the boxes collide; otherwise, false.
+	 */
+	public static boolean isColliding(double x1, double y1, double w1, double h1, double x2, double y2, double w2,
+			double h2) {
+		// Calculate the center points
+		double centerX1 = x1 + w1 / 2.0;
+		double centerY1 = y1 + h1 / 2.0;
+		double centerX2 = x2 + w2 / 2.0;
+		double centerY2 = y2 + h2 / 2.0;
+
+		// Define a threshold for collision
+		double collisionThresholdX = (w1 + w2) / 4.0;
+		double collisionThresholdY = (h1 + h2) / 4.0;
+
+		// Check for intersection based on the center points and threshold
+		return Math.abs(centerX1 - centerX2) < collisionThresholdX
+				&& Math.abs(centerY1 - centerY2) < collisionThresholdY;
+	}
+
+	/**
+	 * Removes a heart. If the player has no hearts left, the game is over.
+	 */
+	private void loseHeart() {
+		hearts--;
+		if (hearts >= 0) {
+			listener.heartsChanged(hearts);
+		} else {
+			gameOver = true;
+			// an endless run stops generating obstacles
+			endless = false;
+			clearBodies();
+			listener.gameOver();
+		}
+	}
+
+	/* ...............Endless Mode................. */
+
+	/**
+	 * Starts an endless run with the first level: clears the obstacles, moves the
+	 * player to the starting position and streams in the first chunk of
+	 * obstacles.
+	 */
+	public void startEndless() {
+		round = 1;
+		endless = true;
+		level = levels.get(0);
+		distance = 0;
+		packagesFoundThisRound = 0;
+		clearBodies();
+		movePlayerTo(W / 4, H / 2);
+		nextChunkX = W;
+		streamChunks();
+	}
+
+	/**
+	 * Generates chunks until the next one would start more than a chunk right of
+	 * the screen, so there is always one chunk ready beyond the right edge.
+	 */
+	private void streamChunks() {
+		double chunkWidth = CHUNK_COLUMNS * (OBSTACLE_WIDTH + level.getColumnSpacing());
+		while (nextChunkX < W + chunkWidth) {
+			spawnChunk(nextChunkX);
+			nextChunkX += chunkWidth;
+		}
+	}
+
+	/**
+	 * Generates the obstacles of one chunk. The higher the difficulty, the more
+	 * grid cells are occupied and the fewer of them hold a package.
+	 *
+	 * @param x The x-coordinate of the first column of the chunk.
+	 */
+	private void spawnChunk(double x) {
+		int difficulty = getDifficulty();
+		double density = 0.5 + 0.04 * difficulty;
+		double packageChance = 0.2 - 0.015 * difficulty;
+		for (int col = 0; col < CHUNK_COLUMNS; col++) {
+			double columnX = x + col * (OBSTACLE_WIDTH + level.getColumnSpacing());
+			for (int row = 0; row < level.getRows(); row++) {
+				if (random.nextDouble() >= density) {
+					continue;
+				}
+				double y = H - OBSTACLE_HEIGHT - 100 - row * (OBSTACLE_HEIGHT + level.getRowSpacing());
+				if (random.nextDouble() < packageChance) {
+					addBody(EntityKind.PACKAGE, OBSTACLE_TYPES + random.nextInt(PACKAGE_TYPES), columnX, y,
+							OBSTACLE_WIDTH, OBSTACLE_HEIGHT);
+				} else {
+					addBody(EntityKind.OBSTACLE, level.getObstacleType(random.nextInt(level.getObstacleTypeCount())),
+							columnX, y, OBSTACLE_WIDTH, OBSTACLE_HEIGHT);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the difficulty of the endless mode, which grows by one every
+	 * {@link #DIFFICULTY_DISTANCE} pixels up to {@link #MAX_DIFFICULTY}.
+	 *
+	 * @return The difficulty, 0 outside of endless mode.
+	 */
+	public int getDifficulty() {
+		return endless ? (int) Math.min(distance / DIFFICULTY_DISTANCE, MAX_DIFFICULTY) : 0;
+	}
+
+	/**
+	 * Returns the speed of the obstacles: the speed of the level, raised by 8 %
+	 * per difficulty step in endless mode.
+	 *
+	 * @return The speed in pixels per second.
+	 */
+	public double getObstacleSpeed() {
+		return level.getObstacleSpeed() * (1 + 0.08 * getDifficulty());
+	}
+
+	/* ...............Bodies................. */
+
+	/**
+	 * Adds a body to the game, reusing a removed one if possible. Obstacles and
+	 * packages are added to the formation.
+	 *
+	 * @param x The x-coordinate of the body in world coordinates.
+	 */
+	private Body addBody(EntityKind kind, int type, double x, double y, double width, double height) {
+		if (isInFormation(kind)) {
+			x -= formationX;
+		}
+		Body body;
+		if (freeBodies.isEmpty()) {
+			body = new Body(nextId++, kind, type, x, y, width, height);
+		} else {
+			body = freeBodies.remove(freeBodies.size() - 1);
+			body.reset(kind, type, x, y, width, height);
+		}
+		getStore(kind).add(body);
+		listener.bodyAdded(body);
+		return body;
+	}
+
+	/**
+	 * Removes the obstacle in the given slot of a store from the game.
+	 *
+	 * @return The body of the removed obstacle.
+	 */
+	private Body removeSlot(ObstacleStore store, int slot) {
+		Body body = store.remove(slot);
+		listener.bodyRemoved(body);
+		freeBodies.add(body);
+		return body;
+	}
+
+	/**
+	 * Checks if the bodies of the given kind scroll with the obstacle formation.
+	 *
+	 * @param kind The kind of the bodies.
+	 * @return True for obstacles and packages; otherwise, false.
+	 */
+	public static boolean isInFormation(EntityKind kind) {
+		return kind == EntityKind.OBSTACLE || kind == EntityKind.PACKAGE;
+	}
+
+	/**
+	 * Returns the x-coordinate of a body on the screen.
+	 *
+	 * @param body The body.
+	 * @return The x-coordinate of the body in world coordinates.
+	 */
+	public double getWorldX(Body body) {
+		return isInFormation(body.getKind()) ? formationX + body.getX() : body.getX();
+	}
+
+	/**
+	 * Removes all obstacles and packages from the game and moves the
+	 * formation back to the origin.
+	 */
+	public void clearBodies() {
+		clear(obstacles);
+		clear(packages);
+		formationX = 0;
+	}
+
+	/**
+	 * Removes all obstacles of the given store from the game.
+	 */
+	private void clear(ObstacleStore store) {
+		for (int i = 0; i < store.size(); i++) {
+			Body body = store.getBody(i);
+			listener.bodyRemoved(body);
+			freeBodies.add(body);
+		}
+		store.clear();
+	}
+
+	/**
+	 * Shuffles the given positions in place (Fisher-Yates).
+	 */
+	private void shuffle(int[] array) {
+		for (int i = array.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int tmp = array[i];
+			array[i] = array[j];
+			array[j] = tmp;
+		}
+	}
+
+	/*-----Getter und Setter-----*/
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public boolean hasCollisionMasks() {
+		return masks != null;
+	}
+
+	public long getTick() {
+		return tick;
+	}
+
+	public List<Body> getBodies(EntityKind kind) {
+		return getStore(kind).getBodies();
+	}
+
+	/**
+	 * Returns the store of the obstacles or packages.
+	 *
+	 * @param kind OBSTACLE or PACKAGE.
+	 * @return The store of the given kind.
+	 */
+	public ObstacleStore getStore(EntityKind kind) {
+		switch (kind) {
+		case OBSTACLE:
+			return obstacles;
+		case PACKAGE:
+			return packages;
+		default:
+			throw new IllegalArgumentException("No bodies of kind " + kind);
+		}
+	}
+
+	/**
+	 * Returns the number of body ids handed out so far. All ids are below this
+	 * value.
+	 *
+	 * @return The number of body ids.
+	 */
+	public int getBodyIdCount() {
+		return nextId;
+	}
+
+	public double getPlayerX() {
+		return playerX;
+	}
+
+	public double getPlayerY() {
+		return playerY;
+	}
+
+	public int getHearts() {
+		return hearts;
+	}
+
+	public void setHearts(int hearts) {
+		this.hearts = hearts;
+		listener.heartsChanged(hearts);
+	}
+
+	public int getCurrentRound() {
+		return round;
+	}
+
+	public Level getLevel() {
+		return level;
+	}
+
+	public List<Level> getLevels() {
+		return levels;
+	}
+
+	public int getPackagesFound() {
+		return packagesFound;
+	}
+
+	public int getPackagesFoundThisRound() {
+		return packagesFoundThisRound;
+	}
+
+	public int getPackagesNeeded() {
+		return packagesNeeded;
+	}
+
+	public int getBadObstacles() {
+		return badObstacles;
+	}
+
+	public boolean isGameOver() {
+		return gameOver;
+	}
+
+	public boolean isEndless() {
+		return endless;
+	}
+
+	public double getFormationX() {
+		return formationX;
+	}
+
+	/**
+	 * Returns the distance the fence strip has scrolled since the start. The
+	 * fences are not bodies: they cannot be collided with, and the view repeats
+	 * the strip across the screen from this offset.
+	 *
+	 * @return The scrolled distance in pixels.
+	 */
+	public double getFenceScroll() {
+		return fenceScroll;
+	}
+
+	public double getDistance() {
+		return distance;
+	}
+
+	/**
+	 * Checks whether all packages have been collected, so the next round may be
+	 * started. An endless run has no next round.
+	 *
+	 * @return True if the required number of packages is found; otherwise, false.
+	 */
+	public boolean isReadyForNext() {
+		return !endless && packagesNeeded == packagesFound;
+	}
+}
@@ -0,0 +1,155 @@
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.scene.Group;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.text.Font;
+
+/**
+ * The HudLayer class is the head-up display of the CatchAleksa game: the stage
+ * badge, the number of collected packages, the NEXT button and the remaining
+ * hearts. Its nodes are created once and live in their own Group for the whole
+ * session. Changing a value only sets a dirty flag; the nodes are updated by
+ * {@link #update()} once per frame, and only if their value actually changed.
+ * The number of nodes stays the same no matter how many rounds are played or
+ * hearts are lost.
+ *
+ * @author Florin
+ */
+public class HudLayer {
+
+	// Constants for screen dimensions
+	private static final double W = 1920;
+	private static final double H = 1080;
+	// Number of stage badges; later stages show the last badge
+	private static final int STAGE_BADGES = 3;
+
+	private final Group group = new Group();
+	private final List<Entity> entities = new ArrayList<>();
+	private final ImageView stageBadge = new ImageView();
+	private final Label packagesLabel = new Label();
+	private final Button restartButton = new Button();
+	private final ImageView hearts = new ImageView();
+
+	// indexed by stage - 1 and by the number of hearts
+	private final Image[] stageImages = new Image[STAGE_BADGES];
+	private final Image[] heartImages = new Image[GameSimulation.MAX_HEARTS + 1];
+
+	private int stage = 1, packages = 0, heartsNumber = GameSimulation.MAX_HEARTS;
+	private boolean stageDirty = true, packagesDirty = true, heartsDirty = true;
+
+	/**
+	 * Constructs a new, hidden HudLayer and creates all of its nodes.
+	 *
+	 * @param assets The cache the HUD images are taken from.
+	 */
+	public HudLayer(AssetCache assets) {
+		for (int i = 0; i < stageImages.length; i++) {
+			stageImages[i] = assets.get("Assets/Informative/Stage" + (i + 1) + "Info.png");
+		}
+		for (int i = 0; i < heartImages.length; i++) {
+			heartImages[i] = assets.get("Assets/Hearts/Hearts" + i + ".png");
+		}
+
+		double x = 30;
+		double y = 30;
+		stageBadge.setImage(stageImages[0]);
+		entities.add(new Entity(EntityKind.HUD, stageBadge, x, y));
+
+		packagesLabel.setFont(new Font("Monocraft", 30));
+		entities.add(new Entity(EntityKind.HUD, packagesLabel, 175, 58));
+
+		restartButton.setGraphic(new ImageView(assets.get("Assets/Informative/NextImage.png")));
+		restartButton.setBackground(null);
+		restartButton.setFocusTraversable(false);
+		entities.add(new Entity(EntityKind.HUD, restartButton, x + 419 + 30, y));
+
+		hearts.setImage(heartImages[heartsNumber]);
+		entities.add(new Entity(EntityKind.HUD, hearts, W - (30 + 204), y + 20));
+
+		group.setVisible(false);
+		update();
+	}
+
+	/**
+	 * Applies the values changed since the last update to the nodes. Called once
+	 * per frame.
+	 */
+	public void update() {
+		if (stageDirty) {
+			stageBadge.setImage(stageImages[stage - 1]);
+			stageDirty = false;
+		}
+		if (packagesDirty) {
+			packagesLabel.setText(Integer.toString(packages));
+			packagesDirty = false;
+		}
+		if (heartsDirty) {
+			hearts.setImage(heartImages[heartsNumber]);
+			heartsDirty = false;
+		}
+	}
+
+	/**
+	 * Shows the HUD.
+	 */
+	public void show() {
+		group.setVisible(true);
+	}
+
+	/**
+	 * Hides the HUD, e.g. when the game is over.
+	 */
+	public void hide() {
+		group.setVisible(false);
+	}
+
+	/*-----Getter und Setter-----*/
+
+	public Group getGroup() {
+		return group;
+	}
+
+	public List<Entity> getEntities() {
+		return entities;
+	}
+
+	public Label getPackagesLabel() {
+		return packagesLabel;
+	}
+
+	public Button getRestartButton() {
+		return restartButton;
+	}
+
+	public ImageView getStageBadge() {
+		return stageBadge;
+	}
+
+	public void setStage(int stage) {
+		stage = Math.max(1, Math.min(stage, stageImages.length));
+		if (stage != this.stage) {
+			this.stage = stage;
+			stageDirty = true;
+		}
+	}
+
+	public void setPackages(int packages) {
+		if (packages != this.packages) {
+			this.packages = packages;
+			packagesDirty = true;
+		}
+	}
+
+	public void setHearts(int heartsNumber) {
+		// the simulation goes below zero hearts when the game is over
+		heartsNumber = Math.max(0, Math.min(heartsNumber, heartImages.length - 1));
+		if (heartsNumber != this.heartsNumber) {
+			this.heartsNumber = heartsNumber;
+			heartsDirty = true;
+		}
+	}
+}
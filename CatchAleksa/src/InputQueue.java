@@ -0,0 +1,67 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The InputQueue class passes commands from the JavaFX thread to the
+ * {@link SimulationThread} without locks. It is a bounded ring buffer for one
+ * producer and one consumer thread; commands are non-negative ints, so queuing
+ * does not allocate.
+ *
+ * @author Florin
+ */
+public class InputQueue {
+
+	// Returned by poll() if the queue is empty
+	public static final int EMPTY = -1;
+
+	private final int[] items;
+	private final int mask;
+	// next position to read, only advanced by the consumer
+	private final AtomicLong head = new AtomicLong();
+	// next position to write, only advanced by the producer
+	private final AtomicLong tail = new AtomicLong();
+
+	/**
+	 * Constructs a new InputQueue.
+	 *
+	 * @param capacity The capacity, a power of two.
+	 */
+	public InputQueue(int capacity) {
+		if (Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+		}
+		this.items = new int[capacity];
+		this.mask = capacity - 1;
+	}
+
+	/**
+	 * Adds a command to the queue. Producer thread only.
+	 *
+	 * @param item The command, not negative.
+	 * @return True if the command was added; false if the queue is full.
+	 */
+	public boolean offer(int item) {
+		long t = tail.get();
+		if (t - head.get() == items.length) {
+			return false;
+		}
+		items[(int) (t & mask)] = item;
+		// release: the item is visible before the new tail
+		tail.lazySet(t + 1);
+		return true;
+	}
+
+	/**
+	 * Takes the oldest command from the queue. Consumer thread only.
+	 *
+	 * @return The command, or {@link #EMPTY} if the queue is empty.
+	 */
+	public int poll() {
+		long h = head.get();
+		if (h == tail.get()) {
+			return EMPTY;
+		}
+		int item = items[(int) (h & mask)];
+		head.lazySet(h + 1);
+		return item;
+	}
+}
@@ -0,0 +1,146 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The InputRecorder class writes everything that drives a
+ * {@link GameSimulation} to a compact binary input log: the seed of the
+ * simulation and whether it tests collisions with the collision masks,
+ * followed by the changes of the pressed directions and the round
+ * starts and cheats, each stamped with the tick it happened at. Since the
+ * simulation is deterministic, {@link InputReplay} can reproduce the session
+ * exactly from the log.
+ *
+ * The log is written with big-endian numbers:
+ *
+ * <pre>
+ * int    MAGIC
+ * byte   VERSION
+ * long   seed
+ * byte   1 if the collision masks were used, 0 for the bounding boxes only
+ * event: varint ticks since the previous event, byte type, [byte value]
+ * </pre>
+ *
+ * An INPUT event carries the pressed directions of the following ticks, a
+ * SET_HEARTS event the new number of hearts. The log ends with an END event at
+ * the last tick of the session. Since the input only changes when a key is
+ * pressed or released, a session takes a few bytes per second.
+ *
+ * @author Florin
+ */
+public class InputRecorder {
+
+	public static final int MAGIC = 0x4341494C; // "CAIL"
+	// Changed whenever the simulation gives other results for the same input:
+	// 2 - collisions are tested on the opaque pixels of the sprites
+	// 3 - the header records whether the collision masks were used
+	public static final int VERSION = 3;
+
+	// Event types
+	public static final int INPUT = 0, START_ROUND = 1, START_ENDLESS = 2, SET_HEARTS = 3, END = 4;
+
+	private final DataOutputStream out;
+	private long lastTick = 0;
+	private int lastInput = 0;
+	private boolean closed = false;
+
+	/**
+	 * Creates the log file and writes its header.
+	 *
+	 * @param file The file to write.
+	 * @param seed  The seed of the recorded simulation.
+	 * @param masks True if the simulation tests collisions with the collision
+	 *              masks; false if it tests the bounding boxes only.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public InputRecorder(Path file, long seed, boolean masks) throws IOException {
+		out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+		out.writeInt(MAGIC);
+		out.writeByte(VERSION);
+		out.writeLong(seed);
+		out.writeBoolean(masks);
+	}
+
+	/**
+	 * Records the pressed directions of the given tick, if they changed.
+	 *
+	 * @param tick  The tick the input is used for.
+	 * @param input The pressed directions as a combination of
+	 *              {@link GameSimulation#NORTH}, SOUTH, EAST and WEST.
+	 */
+	public synchronized void input(long tick, int input) {
+		if (input != lastInput) {
+			lastInput = input;
+			write(tick, INPUT, input);
+		}
+	}
+
+	/**
+	 * Records the start of a round or of an endless run.
+	 *
+	 * @param tick    The tick before which the round is started.
+	 * @param endless True for an endless run; false for a regular round.
+	 */
+	public synchronized void startRound(long tick, boolean endless) {
+		write(tick, endless ? START_ENDLESS : START_ROUND, 0);
+	}
+
+	/**
+	 * Records a change of the hearts, e.g. by the cheat code.
+	 *
+	 * @param tick   The tick before which the hearts are changed.
+	 * @param hearts The new number of hearts.
+	 */
+	public synchronized void setHearts(long tick, int hearts) {
+		write(tick, SET_HEARTS, hearts);
+	}
+
+	/**
+	 * Writes the END event and closes the log. Does nothing if the log is
+	 * already closed.
+	 *
+	 * @param tick The last tick of the session; never before the last event.
+	 */
+	public synchronized void close(long tick) {
+		if (closed) {
+			return;
+		}
+		write(Math.max(tick, lastTick), END, 0);
+		closed = true;
+		try {
+			out.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	private void write(long tick, int type, int value) {
+		if (closed) {
+			return;
+		}
+		try {
+			writeVarLong(tick - lastTick);
+			lastTick = tick;
+			out.writeByte(type);
+			if (type == INPUT || type == SET_HEARTS) {
+				out.writeByte(value);
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Writes a non-negative number in 7-bit groups, lowest first; the high bit
+	 * marks that another group follows.
+	 */
+	private void writeVarLong(long value) throws IOException {
+		while ((value & ~0x7fL) != 0) {
+			out.writeByte((int) (value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+}
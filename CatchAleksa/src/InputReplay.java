@@ -0,0 +1,211 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * The InputReplay class plays back an input log written by
+ * {@link InputRecorder}. The log is read into memory at once; every tick the
+ * replay reports the events that are due and the pressed directions, which are
+ * fed to a {@link GameSimulation} created with the recorded seed and the
+ * recorded collision test (see {@link #newSimulation}).
+ *
+ * The game replays a log when started with {@code -Dcatchaleksa.replay=<file>}
+ * (add {@code -Dcatchaleksa.replay.fast=true} to fast-forward). Run as program,
+ * the replay drives a simulation without any UI as fast as the CPU allows, which
+ * makes a recorded session a fixed workload for profiling:
+ * {@code java InputReplay <file> [repetitions]}.
+ *
+ * @author Florin
+ */
+public class InputReplay {
+
+	// Returned by next() when no further event is due at the tick
+	public static final int NONE = -1;
+
+	private final ByteBuffer log;
+	private final long seed;
+	private final boolean masks;
+	private long nextEventTick;
+	private int input = 0;
+	private int hearts = 0;
+	private boolean finished = false;
+
+	/**
+	 * Reads the given input log.
+	 *
+	 * @param file The log file.
+	 * @throws IOException If the file cannot be read or is not an input log.
+	 */
+	public InputReplay(Path file) throws IOException {
+		this.log = ByteBuffer.wrap(Files.readAllBytes(file));
+		if (log.remaining() < 14 || log.getInt() != InputRecorder.MAGIC) {
+			throw new IOException("Not a CatchAleksa input log: " + file);
+		}
+		int version = log.get();
+		if (version != InputRecorder.VERSION) {
+			// the simulation would not reproduce the recorded session
+			throw new IOException("Input log version " + version + " cannot be replayed by version "
+					+ InputRecorder.VERSION + ": " + file);
+		}
+		this.seed = log.getLong();
+		this.masks = log.get() != 0;
+		this.nextEventTick = readTickDelta();
+	}
+
+	/**
+	 * Creates the simulation the log is replayed on: with the recorded seed, the
+	 * given levels and the collision test of the recorded session.
+	 *
+	 * @param levels The levels of the game.
+	 * @param masks  The collision masks of the game, or null if they are not
+	 *               available.
+	 * @return A new simulation.
+	 * @throws IOException If the session was recorded with collision masks but
+	 *                     none are available, so the replay would diverge.
+	 */
+	public GameSimulation newSimulation(List<Level> levels, CollisionMasks masks) throws IOException {
+		if (this.masks && masks == null) {
+			throw new IOException("The input log was recorded with collision masks, which are not available");
+		}
+		return new GameSimulation(seed, levels, this.masks ? masks : null);
+	}
+
+	/**
+	 * Returns the next event due at the given tick. INPUT events are applied
+	 * directly and are not returned; their directions are available through
+	 * {@link #getInput()}. Should be called until it returns {@link #NONE}, before
+	 * the tick is simulated.
+	 *
+	 * @param tick The tick about to be simulated.
+	 * @return START_ROUND, START_ENDLESS, SET_HEARTS or END of InputRecorder, or
+	 *         NONE if no further event is due.
+	 */
+	public int next(long tick) {
+		while (!finished && nextEventTick <= tick) {
+			int type = log.get();
+			int value = type == InputRecorder.INPUT || type == InputRecorder.SET_HEARTS ? log.get() : 0;
+			nextEventTick += readTickDelta();
+			switch (type) {
+			case InputRecorder.INPUT:
+				input = value;
+				break;
+			case InputRecorder.SET_HEARTS:
+				hearts = value;
+				return type;
+			case InputRecorder.END:
+				finished = true;
+				return type;
+			default:
+				return type;
+			}
+		}
+		return NONE;
+	}
+
+	/**
+	 * Reads the distance to the next event. A log that was not closed properly
+	 * ends after its last complete event.
+	 */
+	private long readTickDelta() {
+		if (!log.hasRemaining()) {
+			finished = true;
+			return 0;
+		}
+		long value = 0;
+		int shift = 0;
+		int b;
+		do {
+			b = log.get();
+			value |= (long) (b & 0x7f) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+
+	/**
+	 * Replays the whole log on the given simulation, without any delay.
+	 *
+	 * @param simulation A new simulation created by {@link #newSimulation}.
+	 */
+	public void run(GameSimulation simulation) {
+		while (!finished) {
+			int event;
+			while ((event = next(simulation.getTick())) != NONE) {
+				apply(event, simulation);
+			}
+			if (!finished) {
+				simulation.tick(input);
+			}
+		}
+	}
+
+	/**
+	 * Applies a round start or hearts event to the simulation.
+	 *
+	 * @param event      The event returned by {@link #next(long)}.
+	 * @param simulation The replayed simulation.
+	 */
+	public void apply(int event, GameSimulation simulation) {
+		switch (event) {
+		case InputRecorder.START_ROUND:
+			simulation.startRound();
+			break;
+		case InputRecorder.START_ENDLESS:
+			simulation.startEndless();
+			break;
+		case InputRecorder.SET_HEARTS:
+			simulation.setHearts(hearts);
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Replays a log headless and prints the ticks per second and the final state
+	 * of the simulation, so runs can be compared.
+	 *
+	 * @param args The log file and optionally the number of repetitions.
+	 * @throws IOException If the log cannot be read.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.err.println("Usage: java InputReplay <input log> [repetitions]");
+			System.exit(1);
+		}
+		Path file = Paths.get(args[0]);
+		int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+		for (int i = 0; i < repetitions; i++) {
+			InputReplay replay = new InputReplay(file);
+			GameSimulation simulation = replay.newSimulation(LevelLoader.loadDefault(), CollisionMasks.loadDefault());
+			long start = System.nanoTime();
+			replay.run(simulation);
+			double seconds = (System.nanoTime() - start) / 1e9;
+			System.out.printf("%d ticks in %.3f s (%.0f ticks/s): round %d, hearts %d, packages %d, player %.1f/%.1f%n",
+					simulation.getTick(), seconds, simulation.getTick() / seconds, simulation.getCurrentRound(),
+					simulation.getHearts(), simulation.getPackagesFound(), simulation.getPlayerX(),
+					simulation.getPlayerY());
+		}
+	}
+
+	/*-----Getter-----*/
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public boolean hasCollisionMasks() {
+		return masks;
+	}
+
+	public int getInput() {
+		return input;
+	}
+
+	public boolean isFinished() {
+		return finished;
+	}
+}
@@ -0,0 +1,113 @@
+/**
+ * The Level class describes one round of the CatchAleksa game: the grid of
+ * obstacles, which obstacle types may appear, how many packages are hidden in
+ * the grid, the speeds and the fence strip. Levels are immutable; they are
+ * read once at startup by the {@link LevelLoader}.
+ *
+ * @author Florin
+ */
+public final class Level {
+
+	private final int columns, rows;
+	private final double columnSpacing, rowSpacing;
+	private final int packages;
+	private final int[] obstacleTypes;
+	private final double obstacleSpeed;
+	private final boolean fences;
+	private final double fenceSpacing;
+	private final double fenceSpeed;
+
+	/**
+	 * Constructs a new Level.
+	 *
+	 * @param columns       The number of columns of the obstacle grid.
+	 * @param rows          The number of rows of the obstacle grid.
+	 * @param columnSpacing The horizontal gap between two obstacles in pixels.
+	 * @param rowSpacing    The vertical gap between two obstacles in pixels.
+	 * @param packages      The number of packages among the obstacles.
+	 * @param obstacleTypes The obstacle types the other obstacles are picked from;
+	 *                      a type listed twice is picked twice as often.
+	 * @param obstacleSpeed The speed of the obstacles in pixels per second.
+	 * @param fences        True to show the fence strip; it repeats across the
+	 *                      whole screen.
+	 * @param fenceSpacing  The distance at which the fences repeat in pixels,
+	 *                      greater than 0.
+	 * @param fenceSpeed    The speed of the fences in pixels per second.
+	 */
+	public Level(int columns, int rows, double columnSpacing, double rowSpacing, int packages, int[] obstacleTypes,
+			double obstacleSpeed, boolean fences, double fenceSpacing, double fenceSpeed) {
+		// also rejects a NaN spacing
+		if (columns <= 0 || rows <= 0 || packages < 0 || packages > columns * rows || !(fenceSpacing > 0)
+				|| Double.isInfinite(fenceSpacing) || obstacleTypes.length == 0) {
+			throw new IllegalArgumentException("Invalid level: " + columns + "x" + rows + " grid, " + packages
+					+ " packages, fence spacing " + fenceSpacing + ", " + obstacleTypes.length + " obstacle types");
+		}
+		this.columns = columns;
+		this.rows = rows;
+		this.columnSpacing = columnSpacing;
+		this.rowSpacing = rowSpacing;
+		this.packages = packages;
+		this.obstacleTypes = obstacleTypes.clone();
+		this.obstacleSpeed = obstacleSpeed;
+		this.fences = fences;
+		this.fenceSpacing = fenceSpacing;
+		this.fenceSpeed = fenceSpeed;
+	}
+
+	/**
+	 * Returns one of the obstacle types of this level.
+	 *
+	 * @param index Any index from 0 to {@link #getObstacleTypeCount()} - 1.
+	 * @return The obstacle type at the given index.
+	 */
+	public int getObstacleType(int index) {
+		return obstacleTypes[index];
+	}
+
+	/**
+	 * Returns the number of entries of the obstacle mix.
+	 *
+	 * @return The number of obstacle types, counting repeated types.
+	 */
+	public int getObstacleTypeCount() {
+		return obstacleTypes.length;
+	}
+
+	/*-----Getter-----*/
+
+	public int getColumns() {
+		return columns;
+	}
+
+	public int getRows() {
+		return rows;
+	}
+
+	public double getColumnSpacing() {
+		return columnSpacing;
+	}
+
+	public double getRowSpacing() {
+		return rowSpacing;
+	}
+
+	public int getPackages() {
+		return packages;
+	}
+
+	public double getObstacleSpeed() {
+		return obstacleSpeed;
+	}
+
+	public boolean hasFences() {
+		return fences;
+	}
+
+	public double getFenceSpacing() {
+		return fenceSpacing;
+	}
+
+	public double getFenceSpeed() {
+		return fenceSpeed;
+	}
+}
@@ -0,0 +1,219 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The LevelLoader class reads the {@link Level}s of the CatchAleksa game from a
+ * level file. Every line of the file describes one round as a list of
+ * {@code key=value} pairs; keys that are left out keep their default value.
+ * Empty lines and lines starting with '#' are ignored.
+ *
+ * <pre>
+ * grid=7x6          columns x rows of the obstacle grid
+ * spacing=100,60    horizontal and vertical gap between the obstacles
+ * packages=7        packages hidden among the obstacles
+ * mix=0-5           obstacle types, e.g. 0,0,1,4-5 (repeated types are picked more often)
+ * speed=125         obstacle speed in pixels per second
+ * fences=true       fence strip at the bottom, false for none
+ * fenceSpacing=138  distance at which the fences repeat, greater than 0
+ * fenceSpeed=125    fence speed in pixels per second
+ * </pre>
+ *
+ * The default levels are read from {@value #DEFAULT_LEVELS} on the classpath,
+ * or from the file given by {@code -Dcatchaleksa.levels}.
+ *
+ * @author Florin
+ */
+public class LevelLoader {
+
+	public static final String DEFAULT_LEVELS = "Assets/Levels/levels.txt";
+
+	private static List<Level> defaultLevels;
+
+	/**
+	 * Returns the default levels of the game. They are read on the first call
+	 * only.
+	 *
+	 * @return The immutable list of levels.
+	 */
+	public static synchronized List<Level> loadDefault() {
+		if (defaultLevels == null) {
+			String file = System.getProperty("catchaleksa.levels");
+			defaultLevels = file != null ? load(Paths.get(file)) : loadResource(DEFAULT_LEVELS);
+		}
+		return defaultLevels;
+	}
+
+	/**
+	 * Reads the levels from the given file.
+	 *
+	 * @param file The level file.
+	 * @return The immutable list of levels.
+	 */
+	public static List<Level> load(Path file) {
+		try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			return parse(reader, file.toString());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Reads the levels from the given classpath resource.
+	 */
+	private static List<Level> loadResource(String name) {
+		InputStream in = LevelLoader.class.getClassLoader().getResourceAsStream(name);
+		if (in == null) {
+			throw new IllegalStateException("Level file not found: " + name);
+		}
+		try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+			return parse(reader, name);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Parses the levels, one per line.
+	 *
+	 * @param reader The reader of the level file.
+	 * @param name   The name of the file, used in error messages.
+	 * @return The immutable list of levels.
+	 * @throws IOException If the file cannot be read.
+	 */
+	public static List<Level> parse(Reader reader, String name) throws IOException {
+		List<Level> levels = new ArrayList<>();
+		BufferedReader lines = new BufferedReader(reader);
+		String line;
+		int lineNumber = 0;
+		while ((line = lines.readLine()) != null) {
+			lineNumber++;
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			try {
+				levels.add(parseLevel(line));
+			} catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException(name + ":" + lineNumber + ": " + e.getMessage(), e);
+			}
+		}
+		if (levels.isEmpty()) {
+			throw new IllegalArgumentException(name + ": no levels");
+		}
+		return Collections.unmodifiableList(levels);
+	}
+
+	/**
+	 * Parses one level from its key=value pairs.
+	 */
+	private static Level parseLevel(String line) {
+		int columns = 7, rows = 6;
+		double columnSpacing = 100, rowSpacing = 60;
+		int packages = 0;
+		int[] mix = range(0, GameSimulation.OBSTACLE_TYPES - 1);
+		double speed = 125;
+		boolean fences = true;
+		double fenceSpacing = 138;
+		double fenceSpeed = 125;
+
+		for (String pair : line.split("\\s+")) {
+			int equals = pair.indexOf('=');
+			if (equals < 0) {
+				throw new IllegalArgumentException("expected key=value: " + pair);
+			}
+			String key = pair.substring(0, equals);
+			String value = pair.substring(equals + 1);
+			switch (key) {
+			case "grid":
+				String[] grid = split(value, "x", 2);
+				columns = Integer.parseInt(grid[0]);
+				rows = Integer.parseInt(grid[1]);
+				break;
+			case "spacing":
+				String[] spacing = split(value, ",", 2);
+				columnSpacing = Double.parseDouble(spacing[0]);
+				rowSpacing = Double.parseDouble(spacing[1]);
+				break;
+			case "packages":
+				packages = Integer.parseInt(value);
+				break;
+			case "mix":
+				mix = parseMix(value);
+				break;
+			case "speed":
+				speed = Double.parseDouble(value);
+				break;
+			case "fences":
+				fences = parseBoolean(value);
+				break;
+			case "fenceSpacing":
+				fenceSpacing = Double.parseDouble(value);
+				break;
+			case "fenceSpeed":
+				fenceSpeed = Double.parseDouble(value);
+				break;
+			default:
+				throw new IllegalArgumentException("unknown key: " + key);
+			}
+		}
+		return new Level(columns, rows, columnSpacing, rowSpacing, packages, mix, speed, fences, fenceSpacing,
+				fenceSpeed);
+	}
+
+	/**
+	 * Parses an obstacle mix like "0,0,1,4-5".
+	 */
+	private static int[] parseMix(String value) {
+		List<Integer> types = new ArrayList<>();
+		for (String part : value.split(",")) {
+			int dash = part.indexOf('-');
+			int from = Integer.parseInt(dash < 0 ? part : part.substring(0, dash));
+			int to = dash < 0 ? from : Integer.parseInt(part.substring(dash + 1));
+			for (int type = from; type <= to; type++) {
+				if (type < 0 || type >= GameSimulation.OBSTACLE_TYPES) {
+					throw new IllegalArgumentException("unknown obstacle type: " + type);
+				}
+				types.add(type);
+			}
+		}
+		int[] mix = new int[types.size()];
+		for (int i = 0; i < mix.length; i++) {
+			mix[i] = types.get(i);
+		}
+		return mix;
+	}
+
+	private static boolean parseBoolean(String value) {
+		if (!value.equals("true") && !value.equals("false")) {
+			throw new IllegalArgumentException("expected true or false: " + value);
+		}
+		return Boolean.parseBoolean(value);
+	}
+
+	private static int[] range(int from, int to) {
+		int[] range = new int[to - from + 1];
+		for (int i = 0; i < range.length; i++) {
+			range[i] = from + i;
+		}
+		return range;
+	}
+
+	private static String[] split(String value, String separator, int parts) {
+		String[] split = value.split(separator);
+		if (split.length != parts) {
+			throw new IllegalArgumentException("malformed value: " + value);
+		}
+		return split;
+	}
+}
@@ -0,0 +1,96 @@
+import java.lang.management.ManagementFactory;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+/**
+ * The LoadingScreen class is shown while the sprites of the CatchAleksa game
+ * are decoded and their collision masks computed at startup. It only consists
+ * of a label and a progress bar, so it can be displayed before any asset is
+ * available. The progress is read from the {@link AssetCache} once per frame.
+ *
+ * The loading screen also measures the startup: the time from the start of
+ * the JVM to its own first frame (time to first frame) and to the first frame
+ * of the game (time to interactive, see {@link #interactive()}).
+ *
+ * @author Florin
+ */
+public class LoadingScreen extends AnimationTimer {
+
+	// Constants for screen dimensions
+	private static final double W = 1920;
+	private static final double H = 1080;
+
+	private final AssetCache assets;
+	private final ProgressBar progressBar = new ProgressBar(0);
+	private final Scene scene;
+	private long timeToFirstFrame = -1;
+
+	/**
+	 * Constructs a new LoadingScreen following the preload of the given cache.
+	 *
+	 * @param assets The cache whose preload progress is shown.
+	 */
+	public LoadingScreen(AssetCache assets) {
+		this.assets = assets;
+		Label label = new Label("Loading...");
+		label.setFont(new Font("Monocraft", 30));
+		progressBar.setPrefWidth(W / 3);
+		VBox box = new VBox(20, label, progressBar);
+		box.setAlignment(Pos.CENTER);
+		this.scene = new Scene(box, W, H, Color.ALICEBLUE);
+	}
+
+	/**
+	 * Called by JavaFX once per frame. Updates the progress bar and records the
+	 * time to the first frame.
+	 *
+	 * @param now The timestamp of the current frame in nanoseconds.
+	 */
+	@Override
+	public void handle(long now) {
+		if (timeToFirstFrame < 0) {
+			timeToFirstFrame = sinceStart();
+			System.out.println("time to first frame: " + timeToFirstFrame + " ms");
+		}
+		progressBar.setProgress(assets.getPreloadProgress());
+	}
+
+	/**
+	 * Stops the loading screen once the game is ready and reports the time to
+	 * interactive when the first frame of the game is shown.
+	 */
+	public void interactive() {
+		stop();
+		new AnimationTimer() {
+			@Override
+			public void handle(long now) {
+				stop();
+				System.out.println("time to interactive: " + sinceStart() + " ms");
+			}
+		}.start();
+	}
+
+	/**
+	 * Returns the milliseconds since the start of the JVM.
+	 */
+	private static long sinceStart() {
+		return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+	}
+
+	/*-----Getter-----*/
+
+	public Scene getScene() {
+		return scene;
+	}
+
+	public long getTimeToFirstFrame() {
+		return timeToFirstFrame;
+	}
+}
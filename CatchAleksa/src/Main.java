@@ -1,22 +1,65 @@
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 public class Main extends Application {
+	private FlorinController controller;
+
 	@Override
 	public void start(Stage stage) {
+		try {
+			// show the loading screen at once and decode all sprites in parallel,
+			// before the controllers need them
+			AssetCache assets = AssetCache.getInstance();
+			LoadingScreen loading = new LoadingScreen(assets);
+			stage.setScene(loading.getScene());
+			stage.show();
+			loading.start();
+
+			ExecutorService decoders = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+					runnable -> {
+						Thread thread = new Thread(runnable, "asset-decoder");
+						thread.setDaemon(true);
+						return thread;
+					});
+			assets.preloadAsync(decoders).whenComplete((result, error) -> {
+				decoders.shutdown();
+				if (error != null) {
+					// missing sprites are decoded on first use instead
+					error.printStackTrace();
+				}
+				Platform.runLater(() -> showGame(stage, loading));
+			});
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+
+	private void showGame(Stage stage, LoadingScreen loading) {
 		try {
 			FlorinController pc = new FlorinController();
+			controller = pc;
 			pc.startGame();
 			Scene scene = pc.getScene();
 			stage.setScene(scene);
-			stage.show();
+			loading.interactive();
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
 	}
 
+	@Override
+	public void stop() {
+		// closes the recording of the session
+		if (controller != null) {
+			controller.endSession();
+		}
+	}
+
 	public static void main(String[] args) {
 		launch(args);
 	}
@@ -0,0 +1,263 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The ObstacleStore class holds the obstacles (or the packages) of a
+ * {@link GameSimulation} as a struct of arrays: the position, size and type of
+ * the obstacle in slot i are at index i of primitive arrays, which the loops of
+ * the simulation walk linearly.
+ *
+ * Removing an obstacle moves the last one into its slot (swap-remove), so the
+ * slots stay dense and the order of the obstacles changes. The slot of an
+ * obstacle is found by its body id. Every slot also keeps the {@link Body} of
+ * the obstacle, which is handed to the {@link SimulationListener}; it is only
+ * updated when the obstacle is added or changes its position within the
+ * formation.
+ *
+ * A {@link SpatialHash} over the slots is kept up to date with every change, so
+ * the obstacles overlapping an area are found without walking the store. The
+ * store also keeps a lower bound of the right edges of its obstacles, so the
+ * simulation only walks it on the ticks an obstacle leaves the screen. Both
+ * keep a tick cheap for tens of thousands of obstacles in stress tests and
+ * endless runs.
+ *
+ * There are no flag bits per obstacle. A collected obstacle is removed from
+ * the store at once, so it needs no "counted" flag, and the broad phase finds
+ * the obstacles near the player without an "active" flag maintained every
+ * tick. The collision pass therefore queries the grid instead of walking the
+ * whole store; only the wrap pass walks it linearly.
+ *
+ * @author Florin
+ */
+public class ObstacleStore {
+
+	// edge length of the cells of the broad phase, larger than an obstacle
+	private static final double CELL_SIZE = 256;
+
+	private int size = 0;
+	private int[] ids = new int[0];
+	private int[] types = new int[0];
+	private double[] x = new double[0], y = new double[0], width = new double[0], height = new double[0];
+	private Body[] bodies = new Body[0];
+	// slot by body id, -1 if the body is not in this store
+	private int[] slots = new int[0];
+	private final SpatialHash grid = new SpatialHash(CELL_SIZE);
+	// no obstacle has a smaller right edge (x + width)
+	private double minRight = Double.POSITIVE_INFINITY;
+	private final List<Body> bodyList = new AbstractList<Body>() {
+		@Override
+		public Body get(int index) {
+			if (index >= size) {
+				throw new IndexOutOfBoundsException(index);
+			}
+			return bodies[index];
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	};
+
+	/**
+	 * Adds the given body to the last slot.
+	 *
+	 * @param body The body to add; its id must not be in the store yet.
+	 * @return The slot of the body.
+	 */
+	public int add(Body body) {
+		if (size == ids.length) {
+			grow();
+		}
+		int id = body.getId();
+		if (id >= slots.length) {
+			int length = slots.length;
+			slots = Arrays.copyOf(slots, Math.max(64, id * 2));
+			Arrays.fill(slots, length, slots.length, -1);
+		}
+		int slot = size++;
+		ids[slot] = id;
+		types[slot] = body.getType();
+		x[slot] = body.getX();
+		y[slot] = body.getY();
+		width[slot] = body.getWidth();
+		height[slot] = body.getHeight();
+		bodies[slot] = body;
+		slots[id] = slot;
+		grid.insert(slot, x[slot], y[slot], width[slot], height[slot]);
+		minRight = Math.min(minRight, x[slot] + width[slot]);
+		return slot;
+	}
+
+	/**
+	 * Removes the obstacle in the given slot and moves the last obstacle into it.
+	 *
+	 * @param slot The slot to remove.
+	 * @return The body of the removed obstacle.
+	 */
+	public Body remove(int slot) {
+		Body removed = bodies[slot];
+		slots[ids[slot]] = -1;
+		grid.remove(slot, x[slot], y[slot], width[slot], height[slot]);
+		int last = --size;
+		if (slot != last) {
+			grid.move(last, slot, x[last], y[last], width[last], height[last]);
+			ids[slot] = ids[last];
+			types[slot] = types[last];
+			x[slot] = x[last];
+			y[slot] = y[last];
+			width[slot] = width[last];
+			height[slot] = height[last];
+			bodies[slot] = bodies[last];
+			slots[ids[slot]] = slot;
+		}
+		bodies[last] = null;
+		return removed;
+	}
+
+	/**
+	 * Returns the slot of the given body.
+	 *
+	 * @param body The body.
+	 * @return The slot, or -1 if the body is not in the store.
+	 */
+	public int slotOf(Body body) {
+		int id = body.getId();
+		if (id < 0 || id >= slots.length) {
+			return -1;
+		}
+		int slot = slots[id];
+		return slot >= 0 && bodies[slot] == body ? slot : -1;
+	}
+
+	/**
+	 * Removes all obstacles.
+	 */
+	public void clear() {
+		for (int slot = 0; slot < size; slot++) {
+			slots[ids[slot]] = -1;
+			bodies[slot] = null;
+		}
+		size = 0;
+		grid.clear();
+		minRight = Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Computes the smallest right edge of the obstacles again, after obstacles
+	 * have been removed or moved right.
+	 */
+	public void updateMinRight() {
+		minRight = Double.POSITIVE_INFINITY;
+		for (int slot = 0; slot < size; slot++) {
+			minRight = Math.min(minRight, x[slot] + width[slot]);
+		}
+	}
+
+	/**
+	 * Finds the obstacles whose cells of the broad phase overlap the given area.
+	 * The result can contain obstacles near the area, so their bounding boxes
+	 * still have to be tested.
+	 *
+	 * @param x      The x-coordinate of the area.
+	 * @param y      The y-coordinate of the area.
+	 * @param width  The width of the area.
+	 * @param height The height of the area.
+	 * @return The number of slots found; they are read with
+	 *         {@link #getQueryResult(int)} in ascending order.
+	 */
+	public int query(double x, double y, double width, double height) {
+		return grid.query(x, y, width, height);
+	}
+
+	private void grow() {
+		int capacity = Math.max(64, ids.length * 2);
+		ids = Arrays.copyOf(ids, capacity);
+		types = Arrays.copyOf(types, capacity);
+		x = Arrays.copyOf(x, capacity);
+		y = Arrays.copyOf(y, capacity);
+		width = Arrays.copyOf(width, capacity);
+		height = Arrays.copyOf(height, capacity);
+		bodies = Arrays.copyOf(bodies, capacity);
+	}
+
+	/*-----Getter und Setter-----*/
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the bodies of the obstacles in the order of their slots, as a live
+	 * read-only list.
+	 *
+	 * @return The bodies.
+	 */
+	public List<Body> getBodies() {
+		return bodyList;
+	}
+
+	public Body getBody(int slot) {
+		return bodies[slot];
+	}
+
+	/**
+	 * Returns a slot found by the last {@link #query}.
+	 *
+	 * @param index The index of the slot, below the count returned by the query.
+	 * @return The slot.
+	 */
+	public int getQueryResult(int index) {
+		return grid.getResult(index);
+	}
+
+	public int getId(int slot) {
+		return ids[slot];
+	}
+
+	public int getType(int slot) {
+		return types[slot];
+	}
+
+	public double getX(int slot) {
+		return x[slot];
+	}
+
+	/**
+	 * Moves the obstacle in the given slot horizontally, together with its body.
+	 *
+	 * @param slot The slot.
+	 * @param x    The new x-coordinate.
+	 */
+	public void setX(int slot, double x) {
+		grid.remove(slot, this.x[slot], y[slot], width[slot], height[slot]);
+		this.x[slot] = x;
+		bodies[slot].setX(x);
+		grid.insert(slot, x, y[slot], width[slot], height[slot]);
+		minRight = Math.min(minRight, x + width[slot]);
+	}
+
+	public double getY(int slot) {
+		return y[slot];
+	}
+
+	public double getWidth(int slot) {
+		return width[slot];
+	}
+
+	public double getHeight(int slot) {
+		return height[slot];
+	}
+
+	/**
+	 * Returns a lower bound of the right edges (x + width) of the obstacles. It is
+	 * exact after {@link #updateMinRight()} and may only be too small after a
+	 * removal.
+	 *
+	 * @return The smallest right edge, or positive infinity if the store is empty.
+	 */
+	public double getMinRight() {
+		return minRight;
+	}
+}
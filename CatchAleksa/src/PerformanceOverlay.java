@@ -0,0 +1,94 @@
+import java.util.Locale;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+/**
+ * The PerformanceOverlay class shows the {@link FrameStats} of the CatchAleksa
+ * game on top of the play field: the p50, p99 and maximum frame time, the
+ * current entity and Timeline count, the allocation rate and a rolling graph of
+ * the last {@link FrameStats#HISTORY} frame times. The overlay is toggled with
+ * F3 and is only redrawn while it is visible.
+ *
+ * @author Florin
+ */
+public class PerformanceOverlay {
+
+	private static final double WIDTH = FrameStats.HISTORY, HEIGHT = 180;
+	private static final double GRAPH_TOP = 80;
+	// frame time mapped to the top of the graph
+	private static final double GRAPH_MAX_MS = 50;
+	// a frame at 60 fps
+	private static final double BUDGET_MS = 1000.0 / 60;
+
+	private final FrameStats stats;
+	private final Canvas canvas = new Canvas(WIDTH, HEIGHT);
+	private final GraphicsContext graphics = canvas.getGraphicsContext2D();
+
+	/**
+	 * Constructs a new, hidden PerformanceOverlay for the given stats.
+	 *
+	 * @param stats The stats to display.
+	 */
+	public PerformanceOverlay(FrameStats stats) {
+		this.stats = stats;
+		canvas.setVisible(false);
+		canvas.setMouseTransparent(true);
+		graphics.setFont(new Font("Monospaced", 14));
+	}
+
+	/**
+	 * Shows the overlay if it is hidden and hides it otherwise.
+	 */
+	public void toggle() {
+		canvas.setVisible(!canvas.isVisible());
+		if (canvas.isVisible()) {
+			// HUD nodes added later would otherwise cover the overlay
+			canvas.toFront();
+			update();
+		}
+	}
+
+	/**
+	 * Redraws the overlay with the latest stats. Does nothing while the overlay
+	 * is hidden.
+	 */
+	public void update() {
+		if (!canvas.isVisible()) {
+			return;
+		}
+		graphics.setFill(Color.rgb(0, 0, 0, 0.6));
+		graphics.clearRect(0, 0, WIDTH, HEIGHT);
+		graphics.fillRect(0, 0, WIDTH, HEIGHT);
+
+		graphics.setFill(Color.WHITE);
+		graphics.fillText(String.format(Locale.ROOT, "frame p50 %5.1f ms  p99 %5.1f ms  max %6.1f ms",
+				stats.getPercentile(0.5), stats.getPercentile(0.99), stats.getMaxFrameMs()), 8, 20);
+		graphics.fillText(String.format(Locale.ROOT, "update %5.2f ms  render %5.2f ms  layout %5.2f ms",
+				stats.getUpdateMs(0), stats.getRenderMs(0), stats.getLayoutMs(0)), 8, 40);
+		graphics.fillText(String.format(Locale.ROOT, "entities %4d  timelines %3d  alloc %6.1f MB/s",
+				stats.getEntityCount(0), stats.getLiveTimelines(), stats.getAllocationRate() / (1024 * 1024)), 8,
+				60);
+
+		// rolling graph, newest frame on the right
+		double graphHeight = HEIGHT - GRAPH_TOP;
+		int frames = (int) Math.min(stats.getFrames(), FrameStats.HISTORY);
+		for (int i = 0; i < frames; i++) {
+			double ms = stats.getFrameMs(i);
+			double barHeight = Math.min(ms / GRAPH_MAX_MS, 1) * graphHeight;
+			graphics.setFill(ms > BUDGET_MS * 1.5 ? Color.ORANGERED : Color.LIMEGREEN);
+			graphics.fillRect(WIDTH - 1 - i, HEIGHT - barHeight, 1, barHeight);
+		}
+		double budgetY = HEIGHT - BUDGET_MS / GRAPH_MAX_MS * graphHeight;
+		graphics.setStroke(Color.YELLOW);
+		graphics.strokeLine(0, budgetY, WIDTH, budgetY);
+	}
+
+	/*-----Getter-----*/
+
+	public Canvas getCanvas() {
+		return canvas;
+	}
+}
@@ -0,0 +1,112 @@
+import javafx.scene.Node;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.ImagePattern;
+import javafx.scene.shape.Rectangle;
+
+/**
+ * The ScrollingLayer class displays a horizontal strip of a repeating texture,
+ * such as the fence at the bottom of the screen or the background, scrolled by
+ * a single offset. The strip is one Rectangle filled with an ImagePattern and
+ * one tile wider than the screen, so scrolling only sets its translateX to the
+ * offset modulo the tile width. In canvas mode the strip is drawn with one
+ * fill. Either way, the cost of a frame does not depend on the width of the
+ * screen or the number of tiles.
+ *
+ * Several layers can scroll at different speeds for a parallax effect: every
+ * layer scrolls by its parallax factor times the common scroll distance.
+ *
+ * @author Florin
+ */
+public class ScrollingLayer {
+
+	// Constants for screen dimensions
+	private static final double W = 1920;
+
+	private final double parallax;
+	private final Rectangle strip = new Rectangle();
+	private Image image;
+	private ImagePattern pattern;
+	private double tileWidth;
+	// current translateX of the strip, between -tileWidth and 0
+	private double shift = 0;
+
+	/**
+	 * Constructs a new ScrollingLayer.
+	 *
+	 * @param image      The texture that is repeated.
+	 * @param y          The y-coordinate of the strip.
+	 * @param tileWidth  The distance in pixels at which the texture repeats; the
+	 *                   texture is scaled to it unless it already has that
+	 *                   width.
+	 * @param tileHeight The height of the strip.
+	 * @param parallax   The factor by which the scroll distance is multiplied,
+	 *                   e.g. 1 for the ground and less for the distant background.
+	 */
+	public ScrollingLayer(Image image, double y, double tileWidth, double tileHeight, double parallax) {
+		this.parallax = parallax;
+		strip.setY(y);
+		strip.setHeight(tileHeight);
+		strip.setMouseTransparent(true);
+		setTile(image, tileWidth);
+	}
+
+	/**
+	 * Changes the texture and the distance at which it repeats. Does nothing if
+	 * neither has changed.
+	 *
+	 * @param image     The new texture.
+	 * @param tileWidth The new tile width in pixels.
+	 */
+	public void setTile(Image image, double tileWidth) {
+		if (image == this.image && tileWidth == this.tileWidth) {
+			return;
+		}
+		this.image = image;
+		this.tileWidth = tileWidth;
+		// anchored at the top of the strip, so every tile starts at its top edge
+		this.pattern = new ImagePattern(image, 0, strip.getY(), tileWidth, strip.getHeight(), false);
+		strip.setWidth(W + tileWidth);
+		strip.setFill(pattern);
+	}
+
+	/**
+	 * Scrolls the strip to the given distance.
+	 *
+	 * @param scroll The common scroll distance in pixels; the strip moves left as
+	 *               it grows.
+	 */
+	public void scrollTo(double scroll) {
+		double offset = scroll * parallax;
+		offset -= Math.floor(offset / tileWidth) * tileWidth;
+		shift = -offset;
+		strip.setTranslateX(shift);
+	}
+
+	/**
+	 * Draws the strip at its current scroll position. Used in canvas mode instead
+	 * of the node.
+	 *
+	 * @param graphics The graphics context of the canvas.
+	 */
+	public void draw(GraphicsContext graphics) {
+		if (!strip.isVisible()) {
+			return;
+		}
+		graphics.save();
+		graphics.translate(shift, 0);
+		graphics.setFill(pattern);
+		graphics.fillRect(0, strip.getY(), strip.getWidth(), strip.getHeight());
+		graphics.restore();
+	}
+
+	/*-----Getter und Setter-----*/
+
+	public Node getNode() {
+		return strip;
+	}
+
+	public void setVisible(boolean visible) {
+		strip.setVisible(visible);
+	}
+}
@@ -0,0 +1,22 @@
+/**
+ * The SessionBot interface drives a headless session of the CatchAleksa game
+ * in place of a player. A {@link SessionHost} asks the bot of a session for
+ * the input of every tick.
+ *
+ * A bot belongs to exactly one session, so it may keep state between ticks
+ * without synchronization.
+ *
+ * @author Florin
+ */
+public interface SessionBot {
+
+	/**
+	 * Chooses the input of the next tick.
+	 *
+	 * @param simulation The simulation of the session, at the end of the previous
+	 *                   tick.
+	 * @return The pressed directions as a combination of NORTH, SOUTH, EAST and
+	 *         WEST of {@link GameSimulation}.
+	 */
+	int nextInput(GameSimulation simulation);
+}
@@ -0,0 +1,213 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * The SessionHost class runs many headless sessions of the CatchAleksa game
+ * concurrently in one JVM, e.g. for bot-driven load and balance tests. Every
+ * session has its own {@link GameSimulation}, seed and {@link SessionBot} and
+ * runs on its own virtual thread, so hundreds of sessions are spread over all
+ * cores. The sessions only share the immutable levels.
+ *
+ * Started as a program, it runs the sessions with a bot that collects the
+ * nearest package and prints a summary:
+ * {@code java SessionHost [sessions] [ticks]}
+ *
+ * @author Florin
+ */
+public class SessionHost {
+
+	// a busy virtual thread is not preempted, so sessions yield regularly
+	private static final int YIELD_TICKS = 600;
+
+	private final List<Level> levels;
+
+	/**
+	 * Constructs a new SessionHost.
+	 *
+	 * @param levels The levels of the sessions, at least one.
+	 */
+	public SessionHost(List<Level> levels) {
+		this.levels = levels;
+	}
+
+	/**
+	 * Runs the given number of sessions until the game is over or the given
+	 * number of ticks has passed. Session i is seeded with {@code firstSeed + i}.
+	 * A session starts the next round as soon as it is ready for it.
+	 *
+	 * @param sessions  The number of sessions.
+	 * @param firstSeed The seed of the first session.
+	 * @param maxTicks  The maximum number of ticks of a session.
+	 * @param bots      Creates the bot of each session.
+	 * @return The results of the sessions, in the order of their seeds. Sessions
+	 *         that failed are missing.
+	 * @throws InterruptedException If the thread is interrupted while waiting.
+	 */
+	public List<Result> run(int sessions, long firstSeed, long maxTicks, Supplier<SessionBot> bots)
+			throws InterruptedException {
+		List<Future<Result>> futures = new ArrayList<>(sessions);
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < sessions; i++) {
+				long seed = firstSeed + i;
+				SessionBot bot = bots.get();
+				futures.add(executor.submit(() -> runSession(seed, maxTicks, bot)));
+			}
+		}
+
+		List<Result> results = new ArrayList<>(sessions);
+		for (Future<Result> future : futures) {
+			try {
+				results.add(future.get());
+			} catch (ExecutionException e) {
+				e.getCause().printStackTrace();
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Runs a single session on the current thread.
+	 *
+	 * @param seed     The seed of the session.
+	 * @param maxTicks The maximum number of ticks.
+	 * @param bot      The bot of the session.
+	 * @return The result of the session.
+	 */
+	private Result runSession(long seed, long maxTicks, SessionBot bot) {
+		GameSimulation simulation = new GameSimulation(seed, levels);
+		simulation.startRound();
+		while (!simulation.isGameOver() && simulation.getTick() < maxTicks) {
+			if (simulation.isReadyForNext()) {
+				simulation.startRound();
+			}
+			simulation.tick(bot.nextInput(simulation));
+			if (simulation.getTick() % YIELD_TICKS == 0) {
+				Thread.yield();
+			}
+		}
+		return new Result(simulation);
+	}
+
+	/**
+	 * Runs the sessions with {@link CollectorBot}s and prints how fast they ran
+	 * and how far they got.
+	 *
+	 * @param args The number of sessions (default 200) and the maximum number of
+	 *             ticks per session (default 36000, ten minutes of play).
+	 * @throws InterruptedException If the thread is interrupted while waiting.
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+		long maxTicks = args.length > 1 ? Long.parseLong(args[1]) : 36_000;
+
+		SessionHost host = new SessionHost(LevelLoader.loadDefault());
+		long start = System.nanoTime();
+		List<Result> results = host.run(sessions, 1, maxTicks, CollectorBot::new);
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		long ticks = 0;
+		int gamesOver = 0, rounds = 0, packages = 0;
+		for (Result result : results) {
+			ticks += result.getTicks();
+			rounds += result.getRound();
+			packages += result.getPackagesFound();
+			if (result.isGameOver()) {
+				gamesOver++;
+			}
+		}
+		int finished = Math.max(1, results.size());
+		System.out.printf("%d sessions, %d ticks in %.2f s (%.0f ticks/s)%n", results.size(), ticks, seconds,
+				ticks / seconds);
+		System.out.printf("game over: %d, average round: %.2f, average packages: %.2f%n", gamesOver,
+				(double) rounds / finished, (double) packages / finished);
+	}
+
+	/**
+	 * The Result class holds the state of a session after it has ended.
+	 */
+	public static class Result {
+
+		private final long seed, ticks;
+		private final int round, packagesFound, hearts;
+		private final boolean gameOver;
+
+		private Result(GameSimulation simulation) {
+			this.seed = simulation.getSeed();
+			this.ticks = simulation.getTick();
+			this.round = simulation.getCurrentRound();
+			this.packagesFound = simulation.getPackagesFound();
+			this.hearts = simulation.getHearts();
+			this.gameOver = simulation.isGameOver();
+		}
+
+		/*-----Getter-----*/
+
+		public long getSeed() {
+			return seed;
+		}
+
+		public long getTicks() {
+			return ticks;
+		}
+
+		public int getRound() {
+			return round;
+		}
+
+		public int getPackagesFound() {
+			return packagesFound;
+		}
+
+		public int getHearts() {
+			return hearts;
+		}
+
+		public boolean isGameOver() {
+			return gameOver;
+		}
+	}
+
+	/**
+	 * The CollectorBot class walks straight to the nearest package.
+	 */
+	private static class CollectorBot implements SessionBot {
+
+		@Override
+		public int nextInput(GameSimulation simulation) {
+			double px = simulation.getPlayerX() + GameSimulation.PLAYER_WIDTH / 2;
+			double py = simulation.getPlayerY() + GameSimulation.PLAYER_HEIGHT / 2;
+			Body target = null;
+			double best = Double.MAX_VALUE;
+			for (Body body : simulation.getBodies(EntityKind.PACKAGE)) {
+				double dx = simulation.getWorldX(body) + body.getWidth() / 2 - px;
+				double dy = body.getY() + body.getHeight() / 2 - py;
+				double distance = dx * dx + dy * dy;
+				if (distance < best) {
+					best = distance;
+					target = body;
+				}
+			}
+			if (target == null) {
+				return 0;
+			}
+
+			int input = 0;
+			double dx = simulation.getWorldX(target) + target.getWidth() / 2 - px;
+			double dy = target.getY() + target.getHeight() / 2 - py;
+			if (dx > 5)
+				input |= GameSimulation.EAST;
+			else if (dx < -5)
+				input |= GameSimulation.WEST;
+			if (dy > 5)
+				input |= GameSimulation.SOUTH;
+			else if (dy < -5)
+				input |= GameSimulation.NORTH;
+			return input;
+		}
+	}
+}
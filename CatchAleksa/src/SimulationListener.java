@@ -0,0 +1,49 @@
+/**
+ * The SimulationListener interface is implemented by the view of the
+ * CatchAleksa game to follow the changes of a {@link GameSimulation}. All
+ * methods are called synchronously from within the simulation and default to
+ * doing nothing, so headless runs do not need a listener at all.
+ *
+ * @author Florin
+ */
+public interface SimulationListener {
+
+	/**
+	 * Called when a body (obstacle or package) enters the game.
+	 *
+	 * @param body The added body.
+	 */
+	default void bodyAdded(Body body) {
+	}
+
+	/**
+	 * Called when a body leaves the game, e.g. when it is collected or the round
+	 * ends. The body may be reused by the simulation afterwards.
+	 *
+	 * @param body The removed body.
+	 */
+	default void bodyRemoved(Body body) {
+	}
+
+	/**
+	 * Called when the player collects a package.
+	 *
+	 * @param packagesFound The total number of packages found.
+	 */
+	default void packageCollected(int packagesFound) {
+	}
+
+	/**
+	 * Called when the number of hearts changes.
+	 *
+	 * @param hearts The remaining hearts.
+	 */
+	default void heartsChanged(int hearts) {
+	}
+
+	/**
+	 * Called when the player has lost all hearts.
+	 */
+	default void gameOver() {
+	}
+}
@@ -0,0 +1,160 @@
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The SimulationThread class runs a {@link GameSimulation} on its own thread
+ * at a fixed rate of one tick per {@link GameSimulation#STEP}, so a heavy tick
+ * no longer delays the JavaFX pulse. It is enabled by starting the game with
+ * {@code -Dcatchaleksa.simthread=true}.
+ *
+ * Once started, the simulation is only touched by this thread. The JavaFX
+ * thread sends the pressed directions through a lock-free {@link InputQueue}
+ * and the rare round starts and cheats through an unbounded queue, so they are
+ * never dropped. It reads the state of the world from the latest
+ * {@link WorldSnapshot}, which this thread publishes after every tick through a
+ * {@link TripleBuffer}. The recorder of the session is written by this thread
+ * only, and closed when the thread is shut down.
+ *
+ * @author Florin
+ */
+public class SimulationThread extends Thread {
+
+	private static final long STEP_NANOS = (long) (GameSimulation.STEP * 1e9);
+	// if the thread falls further behind, it skips the missed ticks
+	private static final long MAX_LAG = 15 * STEP_NANOS;
+
+	private final GameSimulation simulation;
+	private final InputRecorder recorder;
+	private final InputQueue inputs = new InputQueue(256);
+	private final Queue<Integer> commands = new ConcurrentLinkedQueue<>();
+	private final TripleBuffer<WorldSnapshot> snapshots = new TripleBuffer<>(WorldSnapshot::new);
+	private volatile boolean running = true;
+	private int input = 0;
+
+	/**
+	 * Constructs a new SimulationThread and publishes the initial state of the
+	 * simulation.
+	 *
+	 * @param simulation The simulation to run. Must not be used by other threads
+	 *                   once the thread is started.
+	 * @param recorder   The recorder of the session, or null.
+	 */
+	public SimulationThread(GameSimulation simulation, InputRecorder recorder) {
+		super("simulation");
+		setDaemon(true);
+		this.simulation = simulation;
+		this.recorder = recorder;
+		snapshots.back().fill(simulation);
+		snapshots.publish();
+	}
+
+	/**
+	 * Sends the pressed directions to the simulation. Called by the JavaFX thread
+	 * only.
+	 *
+	 * @param input The pressed directions as a combination of
+	 *              {@link GameSimulation#NORTH}, SOUTH, EAST and WEST.
+	 * @return True if the input was queued; false if the queue is full and the
+	 *         input has to be sent again.
+	 */
+	public boolean sendInput(int input) {
+		return inputs.offer(input);
+	}
+
+	/**
+	 * Sends a command to the simulation. Unlike the input, a command is never
+	 * dropped. Called by the JavaFX thread only.
+	 *
+	 * @param type  The command: START_ROUND, START_ENDLESS or SET_HEARTS of
+	 *              {@link InputRecorder}.
+	 * @param value The hearts of SET_HEARTS.
+	 */
+	public void sendCommand(int type, int value) {
+		commands.add(type << 8 | (value & 0xff));
+	}
+
+	/**
+	 * Returns the state of the world after the latest tick. Called by the JavaFX
+	 * thread only.
+	 *
+	 * @return The latest snapshot.
+	 */
+	public WorldSnapshot latest() {
+		return snapshots.latest();
+	}
+
+	/**
+	 * Stops the thread after the current tick. The recorder is closed by the
+	 * thread; {@link #join()} waits for it.
+	 */
+	public void shutdown() {
+		running = false;
+		LockSupport.unpark(this);
+	}
+
+	/**
+	 * Runs the simulation until {@link #shutdown()} is called.
+	 */
+	@Override
+	public void run() {
+		long next = System.nanoTime();
+		while (running) {
+			applyCommands();
+			if (recorder != null) {
+				recorder.input(simulation.getTick(), input);
+			}
+			simulation.tick(input);
+			snapshots.back().fill(simulation);
+			snapshots.publish();
+
+			next += STEP_NANOS;
+			long wait = next - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			} else if (-wait > MAX_LAG) {
+				next = System.nanoTime();
+			}
+		}
+		if (recorder != null) {
+			recorder.close(simulation.getTick());
+		}
+	}
+
+	/**
+	 * Applies the commands sent since the last tick, in order, and then the
+	 * latest input.
+	 */
+	private void applyCommands() {
+		Integer command;
+		while ((command = commands.poll()) != null) {
+			int value = (byte) (int) command;
+			switch (command >>> 8) {
+			case InputRecorder.START_ROUND:
+			case InputRecorder.START_ENDLESS:
+				boolean endless = command >>> 8 == InputRecorder.START_ENDLESS;
+				if (recorder != null) {
+					recorder.startRound(simulation.getTick(), endless);
+				}
+				if (endless) {
+					simulation.startEndless();
+				} else {
+					simulation.startRound();
+				}
+				break;
+			case InputRecorder.SET_HEARTS:
+				if (recorder != null) {
+					recorder.setHearts(simulation.getTick(), value);
+				}
+				simulation.setHearts(value);
+				break;
+			default:
+				break;
+			}
+		}
+		int next;
+		while ((next = inputs.poll()) != InputQueue.EMPTY) {
+			input = next;
+		}
+	}
+}
@@ -0,0 +1,235 @@
+import java.util.Arrays;
+
+/**
+ * The SpatialHash class is a uniform grid over the slots of an
+ * {@link ObstacleStore}, used as broad phase for the collision checks of the
+ * CatchAleksa game. A slot is stored in every grid cell its bounding box
+ * overlaps. A query then only returns the slots of the cells overlapping the
+ * queried area, so the exact collision test only has to run for obstacles near
+ * the player.
+ *
+ * The cells are hashed into buckets, which hold the slot and the cell of every
+ * entry in int arrays; once the buckets have grown, updates and queries do not
+ * allocate. The number of buckets doubles with the number of entries, so a
+ * bucket stays short for tens of thousands of obstacles. A query returns the
+ * slots by cell, so the caller still has to test the bounding boxes.
+ *
+ * @author Florin
+ */
+public class SpatialHash {
+
+	// an entry is the slot, the column and the row of the cell
+	private static final int ENTRY = 3;
+	// the buckets are doubled when they hold more entries on average
+	private static final int LOAD = 2;
+
+	private final double cellSize;
+	// a power of two of buckets, so the bucket of a cell is a mask of its hash
+	private int[][] buckets = new int[64][];
+	// in ints, ENTRY per entry
+	private int[] bucketSizes = new int[64];
+	private int entryCount = 0;
+	// the number of the last query that found the slot, so every slot is found once
+	private int[] marks = new int[0];
+	private int queries = 0;
+	private int[] results = new int[16];
+
+	/**
+	 * Constructs a new SpatialHash with square cells of the given size.
+	 *
+	 * @param cellSize The edge length of a cell in pixels.
+	 */
+	public SpatialHash(double cellSize) {
+		this.cellSize = cellSize;
+		for (int i = 0; i < buckets.length; i++) {
+			buckets[i] = new int[4 * ENTRY];
+		}
+	}
+
+	/**
+	 * Removes all slots. The buckets keep their capacity.
+	 */
+	public void clear() {
+		Arrays.fill(bucketSizes, 0);
+		entryCount = 0;
+	}
+
+	/**
+	 * Inserts a slot into every cell its bounding box overlaps.
+	 *
+	 * @param slot The slot to insert.
+	 * @param x    The x-coordinate of the bounding box.
+	 * @param y    The y-coordinate of the bounding box.
+	 * @param w    The width of the bounding box.
+	 * @param h    The height of the bounding box.
+	 */
+	public void insert(int slot, double x, double y, double w, double h) {
+		int minCol = cell(x), maxCol = cell(x + w);
+		int minRow = cell(y), maxRow = cell(y + h);
+		for (int col = minCol; col <= maxCol; col++) {
+			for (int row = minRow; row <= maxRow; row++) {
+				add(slot, col, row);
+			}
+		}
+		if (entryCount > buckets.length * LOAD) {
+			rehash();
+		}
+	}
+
+	/**
+	 * Removes a slot from every cell its bounding box overlaps. The box must be
+	 * the one the slot was inserted with.
+	 *
+	 * @param slot The slot to remove.
+	 * @param x    The x-coordinate of the bounding box.
+	 * @param y    The y-coordinate of the bounding box.
+	 * @param w    The width of the bounding box.
+	 * @param h    The height of the bounding box.
+	 */
+	public void remove(int slot, double x, double y, double w, double h) {
+		int minCol = cell(x), maxCol = cell(x + w);
+		int minRow = cell(y), maxRow = cell(y + h);
+		for (int col = minCol; col <= maxCol; col++) {
+			for (int row = minRow; row <= maxRow; row++) {
+				int bucket = bucket(col, row);
+				int[] entries = buckets[bucket];
+				int index = indexOf(entries, bucketSizes[bucket], slot, col, row);
+				// the order within a bucket does not matter
+				bucketSizes[bucket] -= ENTRY;
+				System.arraycopy(entries, bucketSizes[bucket], entries, index, ENTRY);
+				entryCount--;
+			}
+		}
+	}
+
+	/**
+	 * Renumbers a slot in every cell its bounding box overlaps, when the store
+	 * moves an obstacle to another slot.
+	 *
+	 * @param from The slot the obstacle was inserted with.
+	 * @param to   The new slot of the obstacle.
+	 * @param x    The x-coordinate of the bounding box.
+	 * @param y    The y-coordinate of the bounding box.
+	 * @param w    The width of the bounding box.
+	 * @param h    The height of the bounding box.
+	 */
+	public void move(int from, int to, double x, double y, double w, double h) {
+		int minCol = cell(x), maxCol = cell(x + w);
+		int minRow = cell(y), maxRow = cell(y + h);
+		for (int col = minCol; col <= maxCol; col++) {
+			for (int row = minRow; row <= maxRow; row++) {
+				int bucket = bucket(col, row);
+				int[] entries = buckets[bucket];
+				entries[indexOf(entries, bucketSizes[bucket], from, col, row)] = to;
+			}
+		}
+	}
+
+	/**
+	 * Collects the slots stored in the cells overlapping the given area, each
+	 * once and in ascending order. They can be read with
+	 * {@link #getResult(int)} until the next query.
+	 *
+	 * @param x The x-coordinate of the area.
+	 * @param y The y-coordinate of the area.
+	 * @param w The width of the area.
+	 * @param h The height of the area.
+	 * @return The number of slots found.
+	 */
+	public int query(double x, double y, double w, double h) {
+		queries++;
+		int count = 0;
+		int minCol = cell(x), maxCol = cell(x + w);
+		int minRow = cell(y), maxRow = cell(y + h);
+		for (int col = minCol; col <= maxCol; col++) {
+			for (int row = minRow; row <= maxRow; row++) {
+				int bucket = bucket(col, row);
+				int[] entries = buckets[bucket];
+				for (int i = 0; i < bucketSizes[bucket]; i += ENTRY) {
+					// other cells can share the bucket
+					if (entries[i + 1] != col || entries[i + 2] != row) {
+						continue;
+					}
+					int slot = entries[i];
+					if (slot >= marks.length) {
+						marks = Arrays.copyOf(marks, Math.max(64, slot * 2));
+					}
+					// a slot spanning several cells is found more than once
+					if (marks[slot] == queries) {
+						continue;
+					}
+					marks[slot] = queries;
+					if (count == results.length) {
+						results = Arrays.copyOf(results, count * 2);
+					}
+					results[count++] = slot;
+				}
+			}
+		}
+		Arrays.sort(results, 0, count);
+		return count;
+	}
+
+	private void add(int slot, int col, int row) {
+		int bucket = bucket(col, row);
+		int size = bucketSizes[bucket];
+		if (size == buckets[bucket].length) {
+			buckets[bucket] = Arrays.copyOf(buckets[bucket], size * 2);
+		}
+		int[] entries = buckets[bucket];
+		entries[size] = slot;
+		entries[size + 1] = col;
+		entries[size + 2] = row;
+		bucketSizes[bucket] = size + ENTRY;
+		entryCount++;
+	}
+
+	/**
+	 * Doubles the number of buckets and moves every entry into its new bucket.
+	 */
+	private void rehash() {
+		int[][] oldBuckets = buckets;
+		int[] oldSizes = bucketSizes;
+		buckets = new int[oldBuckets.length * 2][];
+		bucketSizes = new int[buckets.length];
+		for (int i = 0; i < buckets.length; i++) {
+			buckets[i] = new int[4 * ENTRY];
+		}
+		entryCount = 0;
+		for (int bucket = 0; bucket < oldBuckets.length; bucket++) {
+			int[] entries = oldBuckets[bucket];
+			for (int i = 0; i < oldSizes[bucket]; i += ENTRY) {
+				add(entries[i], entries[i + 1], entries[i + 2]);
+			}
+		}
+	}
+
+	private static int indexOf(int[] entries, int size, int slot, int col, int row) {
+		for (int i = 0; i < size; i += ENTRY) {
+			if (entries[i] == slot && entries[i + 1] == col && entries[i + 2] == row) {
+				return i;
+			}
+		}
+		throw new IllegalStateException("Slot " + slot + " is not in cell " + col + "/" + row);
+	}
+
+	private int cell(double coordinate) {
+		return (int) Math.floor(coordinate / cellSize);
+	}
+
+	private int bucket(int col, int row) {
+		return (col * 73856093 ^ row * 19349663) & (buckets.length - 1);
+	}
+
+	/*-----Getter-----*/
+
+	/**
+	 * Returns a slot found by the last query.
+	 *
+	 * @param index The index of the slot, below the count returned by the query.
+	 * @return The slot.
+	 */
+	public int getResult(int index) {
+		return results[index];
+	}
+}
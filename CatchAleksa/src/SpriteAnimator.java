@@ -0,0 +1,168 @@
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+
+/**
+ * The SpriteAnimator class animates the player character of the CatchAleksa
+ * game. It is a small state machine driven by the simulation ticks instead of
+ * Timelines: every tick adds its duration to the time of the current frame,
+ * and the next frame is shown once {@link #FRAME_TIME} has passed.
+ *
+ * The character is in one of three states:
+ * <ul>
+ * <li>STAND: not moving, shows the standing frame of the facing direction.</li>
+ * <li>WALK: moving, cycles through the walking frames of the direction.</li>
+ * <li>PHONE: idle for a while, cycles through the phone frames.</li>
+ * </ul>
+ * Moving always switches to WALK; stopping switches from WALK back to STAND.
+ * All frames are passed in as arrays, so updating the animation does not
+ * allocate.
+ *
+ * @author Florin
+ */
+public class SpriteAnimator {
+
+	/**
+	 * The states of the animation.
+	 */
+	public enum State {
+		STAND, WALK, PHONE
+	}
+
+	// Directions, used as index into the frame arrays
+	public static final int NORTH = 0, SOUTH = 1, WEST = 2, EAST = 3;
+
+	// Time a frame is shown in seconds
+	public static final double FRAME_TIME = 0.2;
+
+	private final ImageView view;
+	private final Image[] standFrames;
+	private final Image[][] walkFrames;
+	private final Image[] phoneFrames;
+
+	private State state = State.STAND;
+	private int direction = SOUTH;
+	private int frameIndex = 0;
+	// the next walking frame of each direction, so the steps keep alternating
+	private final int[] walkIndex = new int[4];
+	private double frameElapsed = 0;
+
+	/**
+	 * Constructs a new SpriteAnimator showing the standing frame facing south.
+	 *
+	 * @param view        The ImageView of the character.
+	 * @param standFrames The standing frame of every direction.
+	 * @param walkFrames  The walking frames of every direction.
+	 * @param phoneFrames The frames of the idle phone animation.
+	 */
+	public SpriteAnimator(ImageView view, Image[] standFrames, Image[][] walkFrames, Image[] phoneFrames) {
+		this.view = view;
+		this.standFrames = standFrames;
+		this.walkFrames = walkFrames;
+		this.phoneFrames = phoneFrames;
+		show(standFrames[direction]);
+	}
+
+	/**
+	 * Advances the animation by one tick.
+	 *
+	 * @param delta The duration of the tick in seconds.
+	 * @param dx    The horizontal direction the character moves in.
+	 * @param dy    The vertical direction the character moves in.
+	 */
+	public void update(double delta, int dx, int dy) {
+		if (dx != 0 || dy != 0) {
+			walk(directionOf(dx, dy), delta);
+		} else if (state == State.WALK) {
+			state = State.STAND;
+			show(standFrames[direction]);
+		} else if (state == State.PHONE) {
+			frameElapsed += delta;
+			if (frameElapsed >= FRAME_TIME) {
+				frameElapsed -= FRAME_TIME;
+				frameIndex = (frameIndex + 1) % phoneFrames.length;
+				show(phoneFrames[frameIndex]);
+			}
+		}
+	}
+
+	/**
+	 * Starts the phone animation. Does nothing if the character is walking or
+	 * already on the phone.
+	 */
+	public void startPhone() {
+		if (state != State.STAND) {
+			return;
+		}
+		state = State.PHONE;
+		frameIndex = 0;
+		frameElapsed = 0;
+		show(phoneFrames[0]);
+	}
+
+	/**
+	 * Stops the phone animation and shows the standing frame again.
+	 */
+	public void stopPhone() {
+		if (state == State.PHONE) {
+			state = State.STAND;
+			show(standFrames[direction]);
+		}
+	}
+
+	/**
+	 * Shows the walking frames of the given direction. A new walk or a change of
+	 * direction shows the next step at once; otherwise the step changes every
+	 * {@link #FRAME_TIME}.
+	 */
+	private void walk(int newDirection, double delta) {
+		if (state != State.WALK || newDirection != direction) {
+			state = State.WALK;
+			direction = newDirection;
+			frameElapsed = 0;
+			nextStep();
+			return;
+		}
+		frameElapsed += delta;
+		if (frameElapsed >= FRAME_TIME) {
+			frameElapsed -= FRAME_TIME;
+			nextStep();
+		}
+	}
+
+	private void nextStep() {
+		Image[] frames = walkFrames[direction];
+		show(frames[walkIndex[direction]]);
+		walkIndex[direction] = (walkIndex[direction] + 1) % frames.length;
+	}
+
+	private void show(Image image) {
+		if (view.getImage() != image) {
+			view.setImage(image);
+		}
+	}
+
+	/**
+	 * Vertical movement takes precedence, so walking diagonally shows the front
+	 * or back of the character.
+	 */
+	private static int directionOf(int dx, int dy) {
+		if (dy < 0) {
+			return NORTH;
+		} else if (dy > 0) {
+			return SOUTH;
+		} else if (dx < 0) {
+			return WEST;
+		}
+		return EAST;
+	}
+
+	/*-----Getter-----*/
+
+	public State getState() {
+		return state;
+	}
+
+	public int getDirection() {
+		return direction;
+	}
+}
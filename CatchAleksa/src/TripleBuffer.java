@@ -0,0 +1,71 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * The TripleBuffer class hands values from one writer thread to one reader
+ * thread without locks. There are three preallocated buffers: the writer fills
+ * the back buffer and publishes it, the reader always takes the most recently
+ * published one, and the third buffer sits in the middle between them. The
+ * buffers are swapped with a single atomic exchange, so neither thread ever
+ * waits for the other, and a buffer is never written while the reader holds
+ * it.
+ *
+ * @param <T> The type of the buffers.
+ * @author Florin
+ */
+public class TripleBuffer<T> {
+
+	// set in the middle index when it holds a buffer the reader has not taken yet
+	private static final int DIRTY = 4;
+	private static final int INDEX = 3;
+
+	private final Object[] buffers = new Object[3];
+	private final AtomicInteger middle = new AtomicInteger(1);
+	// only used by the writer
+	private int back = 0;
+	// only used by the reader
+	private int front = 2;
+
+	/**
+	 * Constructs a new TripleBuffer with three buffers from the given factory.
+	 *
+	 * @param factory Creates the buffers.
+	 */
+	public TripleBuffer(Supplier<T> factory) {
+		for (int i = 0; i < buffers.length; i++) {
+			buffers[i] = factory.get();
+		}
+	}
+
+	/**
+	 * Returns the buffer the writer may fill. Writer thread only.
+	 *
+	 * @return The back buffer.
+	 */
+	@SuppressWarnings("unchecked")
+	public T back() {
+		return (T) buffers[back];
+	}
+
+	/**
+	 * Publishes the back buffer and hands the writer the middle one in return.
+	 * Writer thread only.
+	 */
+	public void publish() {
+		back = middle.getAndSet(back | DIRTY) & INDEX;
+	}
+
+	/**
+	 * Returns the most recently published buffer. The buffer stays unchanged
+	 * until the next call. Reader thread only.
+	 *
+	 * @return The latest buffer.
+	 */
+	@SuppressWarnings("unchecked")
+	public T latest() {
+		if ((middle.get() & DIRTY) != 0) {
+			front = middle.getAndSet(front) & INDEX;
+		}
+		return (T) buffers[front];
+	}
+}
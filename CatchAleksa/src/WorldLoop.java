@@ -0,0 +1,96 @@
+import javafx.animation.AnimationTimer;
+
+/**
+ * The WorldLoop class is the single clock of the CatchAleksa game. It is driven
+ * by the JavaFX pulse, but advances the game world in fixed simulation steps of
+ * {@link #STEP} seconds: the real time elapsed since the last frame is collected
+ * in an accumulator and consumed step by step. The player, the obstacles and the
+ * fences are all advanced in the same step, after which the frame is handed to
+ * the JavaFX renderer. This makes movement independent of the monitor's refresh
+ * rate.
+ *
+ * The time of every frame and of its update and render phase is recorded in
+ * the {@link FrameStats} of the loop. While the controller fast-forwards a
+ * replay, each frame runs as many steps as fit into its time budget instead.
+ *
+ * @author Florin
+ */
+public class WorldLoop extends AnimationTimer {
+
+	// Length of one simulation step in seconds (60 steps per second)
+	public static final double STEP = GameSimulation.STEP;
+
+	// Upper bound for the time consumed per frame, so a long stall (e.g. a
+	// dragged window) does not cause a burst of catch-up steps
+	private static final double MAX_FRAME_TIME = 0.25;
+
+	// Time a fast-forwarding loop may spend on simulation steps per frame
+	private static final long FAST_FORWARD_BUDGET = 12_000_000;
+
+	private FlorinController controller;
+	private FrameStats stats = new FrameStats();
+	private long lastTime = -1;
+	private double accumulator = 0;
+
+	/**
+	 * Constructs a new WorldLoop that advances the given controller.
+	 *
+	 * @param controller The FlorinController whose world is updated.
+	 */
+	public WorldLoop(FlorinController controller) {
+		this.controller = controller;
+	}
+
+	/**
+	 * Called by JavaFX once per frame. Runs as many fixed simulation steps as the
+	 * elapsed time allows and keeps the remainder for the next frame.
+	 *
+	 * @param now The timestamp of the current frame in nanoseconds.
+	 */
+	@Override
+	public void handle(long now) {
+		if (lastTime < 0) {
+			lastTime = now;
+			return;
+		}
+		long frameNanos = now - lastTime;
+		double frameTime = Math.min(frameNanos / 1e9, MAX_FRAME_TIME);
+		lastTime = now;
+
+		long updateStart = System.nanoTime();
+		if (controller.isFastForward()) {
+			// as many steps as fit into the frame; only the last one is drawn
+			do {
+				controller.update();
+			} while (controller.isFastForward() && System.nanoTime() - updateStart < FAST_FORWARD_BUDGET);
+			accumulator = 0;
+		} else {
+			accumulator += frameTime;
+			while (accumulator >= STEP) {
+				controller.update();
+				accumulator -= STEP;
+			}
+		}
+		long renderStart = System.nanoTime();
+		controller.render();
+		long renderEnd = System.nanoTime();
+		stats.record(frameNanos, renderStart - updateStart, renderEnd - renderStart,
+				controller.getRegistry().size());
+	}
+
+	/**
+	 * Stops the loop and discards the accumulated time.
+	 */
+	@Override
+	public void stop() {
+		super.stop();
+		lastTime = -1;
+		accumulator = 0;
+	}
+
+	/*-----Getter-----*/
+
+	public FrameStats getStats() {
+		return stats;
+	}
+}
@@ -0,0 +1,178 @@
+import java.util.Arrays;
+
+/**
+ * The WorldSnapshot class is a copy of the state of a {@link GameSimulation} at
+ * the end of a tick: the player, the counters, the formation and the position
+ * of every body. The {@link SimulationThread} fills snapshots and hands them to
+ * the JavaFX thread through a {@link TripleBuffer}, which renders from them
+ * without touching the simulation. A published snapshot is not changed again
+ * until the reader has let go of it, so to the reader it is immutable.
+ *
+ * The bodies are stored in parallel arrays that only grow, so filling a
+ * snapshot does not allocate once the game is running.
+ *
+ * @author Florin
+ */
+public class WorldSnapshot {
+
+	private static final EntityKind[] KINDS = { EntityKind.OBSTACLE, EntityKind.PACKAGE };
+
+	private long tick;
+	private double playerX, playerY, formationX, fenceScroll;
+	// levels are immutable, so the reference can be shared
+	private Level level;
+	private int hearts, packagesFound, packagesFoundThisRound, packagesNeeded, badObstacles, round;
+	private boolean gameOver, readyForNext, playerOnStart;
+
+	private int bodyCount = 0;
+	private int[] ids = new int[0];
+	private EntityKind[] kinds = new EntityKind[0];
+	private int[] types = new int[0];
+	private double[] x = new double[0], y = new double[0], width = new double[0], height = new double[0];
+
+	/**
+	 * Copies the current state of the given simulation.
+	 *
+	 * @param simulation The simulation to copy.
+	 */
+	public void fill(GameSimulation simulation) {
+		tick = simulation.getTick();
+		playerX = simulation.getPlayerX();
+		playerY = simulation.getPlayerY();
+		formationX = simulation.getFormationX();
+		fenceScroll = simulation.getFenceScroll();
+		level = simulation.getLevel();
+		hearts = simulation.getHearts();
+		packagesFound = simulation.getPackagesFound();
+		packagesFoundThisRound = simulation.getPackagesFoundThisRound();
+		packagesNeeded = simulation.getPackagesNeeded();
+		badObstacles = simulation.getBadObstacles();
+		round = simulation.getCurrentRound();
+		gameOver = simulation.isGameOver();
+		readyForNext = simulation.isReadyForNext();
+		playerOnStart = simulation.isPlayerOnStart();
+
+		bodyCount = 0;
+		for (EntityKind kind : KINDS) {
+			ObstacleStore store = simulation.getStore(kind);
+			for (int i = 0; i < store.size(); i++) {
+				if (bodyCount == ids.length) {
+					grow();
+				}
+				ids[bodyCount] = store.getId(i);
+				kinds[bodyCount] = kind;
+				types[bodyCount] = store.getType(i);
+				x[bodyCount] = store.getX(i);
+				y[bodyCount] = store.getY(i);
+				width[bodyCount] = store.getWidth(i);
+				height[bodyCount] = store.getHeight(i);
+				bodyCount++;
+			}
+		}
+	}
+
+	private void grow() {
+		int capacity = Math.max(64, ids.length * 2);
+		ids = Arrays.copyOf(ids, capacity);
+		kinds = Arrays.copyOf(kinds, capacity);
+		types = Arrays.copyOf(types, capacity);
+		x = Arrays.copyOf(x, capacity);
+		y = Arrays.copyOf(y, capacity);
+		width = Arrays.copyOf(width, capacity);
+		height = Arrays.copyOf(height, capacity);
+	}
+
+	/*-----Getter-----*/
+
+	public long getTick() {
+		return tick;
+	}
+
+	public double getPlayerX() {
+		return playerX;
+	}
+
+	public double getPlayerY() {
+		return playerY;
+	}
+
+	public double getFormationX() {
+		return formationX;
+	}
+
+	public double getFenceScroll() {
+		return fenceScroll;
+	}
+
+	public Level getLevel() {
+		return level;
+	}
+
+	public int getHearts() {
+		return hearts;
+	}
+
+	public int getPackagesFound() {
+		return packagesFound;
+	}
+
+	public int getPackagesFoundThisRound() {
+		return packagesFoundThisRound;
+	}
+
+	public int getPackagesNeeded() {
+		return packagesNeeded;
+	}
+
+	public int getBadObstacles() {
+		return badObstacles;
+	}
+
+	public int getRound() {
+		return round;
+	}
+
+	public boolean isGameOver() {
+		return gameOver;
+	}
+
+	public boolean isReadyForNext() {
+		return readyForNext;
+	}
+
+	public boolean isPlayerOnStart() {
+		return playerOnStart;
+	}
+
+	public int getBodyCount() {
+		return bodyCount;
+	}
+
+	public int getId(int index) {
+		return ids[index];
+	}
+
+	public EntityKind getKind(int index) {
+		return kinds[index];
+	}
+
+	public int getType(int index) {
+		return types[index];
+	}
+
+	public double getX(int index) {
+		return x[index];
+	}
+
+	public double getY(int index) {
+		return y[index];
+	}
+
+	public double getWidth(int index) {
+		return width[index];
+	}
+
+	public double getHeight(int index) {
+		return height[index];
+	}
+}
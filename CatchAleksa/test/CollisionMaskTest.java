@@ -0,0 +1,132 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks {@link CollisionMask#overlaps} against a brute-force test of the alpha
+ * values of every pixel pair, for random images and for the sprites of the
+ * game.
+ *
+ * @author Florin
+ */
+public class CollisionMaskTest {
+
+	private static final int ALPHA_THRESHOLD = 127;
+
+	@Test
+	public void randomImagesOverlapLikeTheirPixels() {
+		Random random = new Random(42);
+		// narrower and wider than one word of 64 pixels
+		int[][] sizes = { { 13, 9 }, { 64, 20 }, { 70, 33 }, { 130, 17 } };
+		for (int[] a : sizes) {
+			for (int[] b : sizes) {
+				BufferedImage first = randomImage(random, a[0], a[1]);
+				BufferedImage second = randomImage(random, b[0], b[1]);
+				CollisionMask firstMask = new CollisionMask(first, a[0], a[1]);
+				CollisionMask secondMask = new CollisionMask(second, b[0], b[1]);
+				for (int dy = -b[1]; dy <= a[1]; dy++) {
+					for (int dx = -b[0]; dx <= a[0]; dx++) {
+						assertEquals(overlapsByPixels(first, second, dx, dy), firstMask.overlaps(secondMask, dx, dy),
+								a[0] + "x" + a[1] + " and " + b[0] + "x" + b[1] + " at " + dx + "/" + dy);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void spritesOverlapLikeTheirPixels() throws IOException {
+		int playerWidth = (int) GameSimulation.PLAYER_WIDTH;
+		int playerHeight = (int) GameSimulation.PLAYER_HEIGHT;
+		int obstacleWidth = (int) GameSimulation.OBSTACLE_WIDTH;
+		int obstacleHeight = (int) GameSimulation.OBSTACLE_HEIGHT;
+		BufferedImage player = scaled(read("Assets/WalkingAnimation/Front.png"), playerWidth, playerHeight);
+		CollisionMask playerMask = new CollisionMask(player, playerWidth, playerHeight);
+		for (String path : GameSimulation.OBSTACLE_IMAGES) {
+			BufferedImage obstacle = scaled(read(path), obstacleWidth, obstacleHeight);
+			CollisionMask obstacleMask = new CollisionMask(read(path), obstacleWidth, obstacleHeight);
+			// every 7th offset keeps the brute force fast and still covers all alignments to the words
+			for (int dy = -obstacleHeight; dy <= playerHeight; dy++) {
+				for (int dx = -obstacleWidth + Math.floorMod(dy, 7); dx <= playerWidth; dx += 7) {
+					assertEquals(overlapsByPixels(player, obstacle, dx, dy), playerMask.overlaps(obstacleMask, dx, dy),
+							path + " at " + dx + "/" + dy);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks every pixel of the second image against the pixel of the first one
+	 * it covers.
+	 */
+	private static boolean overlapsByPixels(BufferedImage first, BufferedImage second, int dx, int dy) {
+		for (int y = 0; y < second.getHeight(); y++) {
+			for (int x = 0; x < second.getWidth(); x++) {
+				int firstX = x + dx;
+				int firstY = y + dy;
+				if (firstX >= 0 && firstX < first.getWidth() && firstY >= 0 && firstY < first.getHeight()
+						&& isOpaque(first, firstX, firstY) && isOpaque(second, x, y)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static boolean isOpaque(BufferedImage image, int x, int y) {
+		return image.getRGB(x, y) >>> 24 > ALPHA_THRESHOLD;
+	}
+
+	/**
+	 * Returns an image of a few random opaque blobs on a transparent background,
+	 * with partly transparent edges around the alpha threshold.
+	 */
+	private static BufferedImage randomImage(Random random, int width, int height) {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		for (int blob = 0; blob < 3; blob++) {
+			int centerX = random.nextInt(width);
+			int centerY = random.nextInt(height);
+			int radius = 1 + random.nextInt(Math.max(1, Math.min(width, height) / 3));
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					double distance = Math.hypot(x - centerX, y - centerY);
+					if (distance <= radius) {
+						int alpha = distance > radius - 1 ? 100 + random.nextInt(60) : 255;
+						image.setRGB(x, y, Math.max(image.getRGB(x, y) >>> 24, alpha) << 24 | 0x336699);
+					}
+				}
+			}
+		}
+		return image;
+	}
+
+	/**
+	 * Scales the image to the given size the way CollisionMask samples it: the
+	 * pixel under the center of every target pixel.
+	 */
+	private static BufferedImage scaled(BufferedImage image, int width, int height) {
+		BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				scaled.setRGB(x, y, image.getRGB((int) ((x + 0.5) * image.getWidth() / width),
+						(int) ((y + 0.5) * image.getHeight() / height)));
+			}
+		}
+		return scaled;
+	}
+
+	/**
+	 * Reads a sprite from the source folder; the tests run in the folder of the
+	 * game module.
+	 */
+	private static BufferedImage read(String path) throws IOException {
+		return ImageIO.read(new File("src", path));
+	}
+}
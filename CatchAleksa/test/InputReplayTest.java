@@ -0,0 +1,133 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Records seeded sessions of a headless {@link GameSimulation} with
+ * {@link InputRecorder}, replays them with {@link InputReplay} and checks that
+ * the replay ends in the same state with the same score.
+ *
+ * @author Florin
+ */
+public class InputReplayTest {
+
+	private static final long SEED = 42;
+	private static final int TICKS = 20000;
+	// the restart button is pressed this often
+	private static final int ROUND_TICKS = 3000;
+
+	@TempDir
+	Path folder;
+
+	private final List<Level> levels = LevelLoader.loadDefault();
+
+	@Test
+	public void replayReproducesTheSession() throws IOException {
+		CollisionMasks masks = CollisionMasks.loadDefault();
+		assertNotNull(masks, "collision masks");
+		assertReplayed(masks, masks, false);
+		assertReplayed(masks, masks, true);
+	}
+
+	@Test
+	public void replayUsesTheRecordedCollisionTest() throws IOException {
+		// recorded without masks, replayed where they are available
+		assertReplayed(null, CollisionMasks.loadDefault(), false);
+	}
+
+	@Test
+	public void replayRequiresTheRecordedMasks() throws IOException {
+		Path log = folder.resolve("masks.log");
+		record(log, CollisionMasks.loadDefault(), false);
+		InputReplay replay = new InputReplay(log);
+		assertTrue(replay.hasCollisionMasks(), "masks recorded");
+		assertThrows(IOException.class, () -> replay.newSimulation(levels, null), "replay without masks");
+	}
+
+	@Test
+	public void otherVersionsAreRejected() throws IOException {
+		Path log = folder.resolve("old.log");
+		try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(log))) {
+			out.writeInt(InputRecorder.MAGIC);
+			out.writeByte(InputRecorder.VERSION - 1);
+			out.writeLong(SEED);
+			out.writeBoolean(true);
+		}
+		assertThrows(IOException.class, () -> new InputReplay(log), "old version");
+	}
+
+	/**
+	 * Records a session, replays it and compares the final states.
+	 */
+	private void assertReplayed(CollisionMasks recordedMasks, CollisionMasks replayMasks, boolean endless)
+			throws IOException {
+		Path log = folder.resolve("session.log");
+		GameSimulation recorded = record(log, recordedMasks, endless);
+
+		InputReplay replay = new InputReplay(log);
+		GameSimulation replayed = replay.newSimulation(levels, replayMasks);
+		replay.run(replayed);
+
+		assertEquals(recorded.hasCollisionMasks(), replayed.hasCollisionMasks(), "collision test");
+		assertEquals(TICKS, recorded.getTick(), "recorded ticks");
+		assertEquals(state(recorded), state(replayed), "final state");
+		assertEquals(recorded.getPackagesFound(), replayed.getPackagesFound(), "packages");
+	}
+
+	/**
+	 * Plays a session with random input, recording it to the given log. Every
+	 * {@link #ROUND_TICKS} the hearts are refilled and the next round is started,
+	 * as by the restart button; in between, a lost heart is given back by the
+	 * cheat. The session ends after {@link #TICKS} or at a game over.
+	 *
+	 * @return The simulation at the end of the session.
+	 */
+	private GameSimulation record(Path log, CollisionMasks masks, boolean endless) throws IOException {
+		GameSimulation simulation = new GameSimulation(SEED, levels, masks);
+		InputRecorder recorder = new InputRecorder(log, SEED, simulation.hasCollisionMasks());
+		Random random = new Random(7);
+		int input = 0;
+		while (simulation.getTick() < TICKS && !simulation.isGameOver()) {
+			long tick = simulation.getTick();
+			if (tick % ROUND_TICKS == 0 || simulation.getHearts() < GameSimulation.MAX_HEARTS) {
+				recorder.setHearts(tick, GameSimulation.MAX_HEARTS);
+				simulation.setHearts(GameSimulation.MAX_HEARTS);
+			}
+			if (tick % ROUND_TICKS == 0) {
+				recorder.startRound(tick, endless);
+				if (endless) {
+					simulation.startEndless();
+				} else {
+					simulation.startRound();
+				}
+			}
+			if (random.nextInt(20) == 0) {
+				input = random.nextInt(16);
+			}
+			recorder.input(tick, input);
+			simulation.tick(input);
+		}
+		recorder.close(simulation.getTick());
+		return simulation;
+	}
+
+	private static String state(GameSimulation simulation) {
+		return "tick " + simulation.getTick() + ", round " + simulation.getCurrentRound() + ", hearts "
+				+ simulation.getHearts() + ", packages " + simulation.getPackagesFound() + ", bad obstacles "
+				+ simulation.getBadObstacles() + ", player " + simulation.getPlayerX() + "/" + simulation.getPlayerY()
+				+ ", formation " + simulation.getFormationX() + ", distance " + simulation.getDistance()
+				+ ", obstacles " + simulation.getStore(EntityKind.OBSTACLE).size() + ", packages left "
+				+ simulation.getStore(EntityKind.PACKAGE).size() + ", game over " + simulation.isGameOver();
+	}
+}
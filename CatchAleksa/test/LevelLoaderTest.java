@@ -0,0 +1,93 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that {@link LevelLoader} parses the keys of a level file, keeps the
+ * defaults of the keys left out and rejects invalid levels with the line they
+ * are on.
+ *
+ * @author Florin
+ */
+public class LevelLoaderTest {
+
+	@Test
+	public void parsesAllKeys() throws IOException {
+		List<Level> levels = parse("# comment\n\n"
+				+ "grid=5x4 spacing=80,50 packages=3 mix=0,0,2-3 speed=150 fences=false fenceSpacing=146 fenceSpeed=90\n");
+		assertEquals(1, levels.size(), "levels");
+		Level level = levels.get(0);
+		assertEquals(5, level.getColumns(), "columns");
+		assertEquals(4, level.getRows(), "rows");
+		assertEquals(80.0, level.getColumnSpacing(), "column spacing");
+		assertEquals(50.0, level.getRowSpacing(), "row spacing");
+		assertEquals(3, level.getPackages(), "packages");
+		assertEquals(4, level.getObstacleTypeCount(), "obstacle types");
+		assertEquals(0, level.getObstacleType(1), "repeated obstacle type");
+		assertEquals(3, level.getObstacleType(3), "last type of the range");
+		assertEquals(150.0, level.getObstacleSpeed(), "speed");
+		assertFalse(level.hasFences(), "fences");
+		assertEquals(146.0, level.getFenceSpacing(), "fence spacing");
+		assertEquals(90.0, level.getFenceSpeed(), "fence speed");
+	}
+
+	@Test
+	public void keepsTheDefaultsOfMissingKeys() throws IOException {
+		Level level = parse("packages=2").get(0);
+		assertEquals(7, level.getColumns(), "columns");
+		assertEquals(6, level.getRows(), "rows");
+		assertEquals(GameSimulation.OBSTACLE_TYPES, level.getObstacleTypeCount(), "obstacle types");
+		assertTrue(level.hasFences(), "fences");
+		assertEquals(138.0, level.getFenceSpacing(), "fence spacing");
+	}
+
+	@Test
+	public void loadsTheDefaultLevels() {
+		List<Level> levels = LevelLoader.loadDefault();
+		assertTrue(levels.size() >= 1, "levels");
+		for (Level level : levels) {
+			assertTrue(level.getFenceSpacing() > 0, "fence spacing");
+		}
+	}
+
+	@Test
+	public void rejectsNonPositiveFenceSpacing() {
+		for (String spacing : new String[] { "0", "-5", "NaN", "Infinity" }) {
+			assertRejected("packages=1\nfenceSpacing=" + spacing, 2);
+		}
+	}
+
+	@Test
+	public void rejectsInvalidLevels() {
+		assertRejected("grid=0x6", 1);
+		assertRejected("grid=7x6 packages=43", 1);
+		assertRejected("grid=7", 1);
+		assertRejected("mix=0-" + GameSimulation.OBSTACLE_TYPES, 1);
+		assertRejected("fences=16", 1);
+		assertRejected("packages=1\nspeed", 2);
+		assertRejected("packages=1\ncolour=red", 2);
+		assertRejected("speed=fast", 1);
+		assertRejected("# no levels", 0);
+	}
+
+	/**
+	 * Checks that the given level file is rejected with the number of the line
+	 * of the invalid level.
+	 */
+	private static void assertRejected(String file, int line) {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> parse(file), file);
+		String where = line > 0 ? "test.txt:" + line + ": " : "test.txt: ";
+		assertTrue(e.getMessage().startsWith(where), e.getMessage());
+	}
+
+	private static List<Level> parse(String file) throws IOException {
+		return LevelLoader.parse(new StringReader(file), "test.txt");
+	}
+}
@@ -0,0 +1,124 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the swap-remove of {@link ObstacleStore}: after every removal the
+ * slots, the id lookup and the broad phase must still agree with the obstacles
+ * left in the store.
+ *
+ * @author Florin
+ */
+public class ObstacleStoreTest {
+
+	private final ObstacleStore store = new ObstacleStore();
+	private final List<Body> bodies = new ArrayList<>();
+
+	@Test
+	public void removeFromTheMiddle() {
+		add(5);
+		Body last = store.getBody(4);
+		Body removed = store.remove(1);
+		assertEquals(-1, store.slotOf(removed), "removed body");
+		assertEquals(1, store.slotOf(last), "last body moved into the slot");
+		assertEquals(last.getX(), store.getX(1), "x of the moved body");
+		bodies.remove(removed);
+		assertConsistent();
+	}
+
+	@Test
+	public void removeTheLastSlot() {
+		add(5);
+		Body removed = store.remove(4);
+		assertEquals(-1, store.slotOf(removed), "removed body");
+		bodies.remove(removed);
+		assertConsistent();
+	}
+
+	@Test
+	public void removeTheOnlySlot() {
+		add(1);
+		Body removed = store.remove(0);
+		assertEquals(-1, store.slotOf(removed), "removed body");
+		assertEquals(0, store.size(), "size");
+		assertEquals(0, store.query(-10000, -10000, 20000, 20000), "slots found after the removal");
+		bodies.remove(removed);
+
+		// the store keeps working once it is empty
+		add(2);
+		assertConsistent();
+	}
+
+	@Test
+	public void removeEverySlotInTurn() {
+		add(300);
+		for (int i = 0; i < 300; i++) {
+			// the middle, the end and the start in turn
+			int slot = i % 3 == 0 ? store.size() / 2 : i % 3 == 1 ? store.size() - 1 : 0;
+			bodies.remove(store.remove(slot));
+			assertConsistent();
+		}
+	}
+
+	@Test
+	public void moveAfterRemove() {
+		add(40);
+		bodies.remove(store.remove(3));
+		// moves the body that took over slot 3 into other cells of the grid
+		store.setX(3, store.getX(3) + 1000);
+		assertConsistent();
+	}
+
+	/**
+	 * Adds the given number of bodies in a grid whose obstacles overlap several
+	 * cells of the broad phase.
+	 */
+	private void add(int count) {
+		int first = bodies.isEmpty() ? 0 : bodies.get(bodies.size() - 1).getId() + 1;
+		for (int i = 0; i < count; i++) {
+			int id = first + i;
+			Body body = new Body(id, EntityKind.OBSTACLE, 0, (id % 10) * 170, (id / 10) * 90, 190, 100);
+			store.add(body);
+			bodies.add(body);
+		}
+	}
+
+	/**
+	 * Checks that every body has a slot holding its position, and that the
+	 * broad phase finds exactly the bodies overlapping the area of every body.
+	 */
+	private void assertConsistent() {
+		assertEquals(bodies.size(), store.size(), "size");
+		for (Body body : bodies) {
+			int slot = store.slotOf(body);
+			assertTrue(slot >= 0 && slot < store.size(), "slot of body " + body.getId());
+			assertEquals(body, store.getBody(slot), "body in its slot");
+			assertEquals(body.getX(), store.getX(slot), "x of body " + body.getId());
+			assertEquals(body.getY(), store.getY(slot), "y of body " + body.getId());
+		}
+		for (Body area : bodies) {
+			int found = store.query(area.getX(), area.getY(), area.getWidth(), area.getHeight());
+			List<Body> candidates = new ArrayList<>();
+			for (int i = 0; i < found; i++) {
+				int slot = store.getQueryResult(i);
+				assertTrue(slot < store.size(), "stale slot " + slot);
+				assertTrue(i == 0 || slot > store.getQueryResult(i - 1), "slots in ascending order");
+				candidates.add(store.getBody(slot));
+			}
+			for (Body body : bodies) {
+				if (overlaps(area, body)) {
+					assertTrue(candidates.contains(body), "body " + body.getId() + " near body " + area.getId());
+				}
+			}
+		}
+	}
+
+	private static boolean overlaps(Body a, Body b) {
+		return a.getX() < b.getX() + b.getWidth() && b.getX() < a.getX() + a.getWidth()
+				&& a.getY() < b.getY() + b.getHeight() && b.getY() < a.getY() + a.getHeight();
+	}
+}
@@ -0,0 +1,36 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.ImagePattern;
+import javafx.scene.shape.Rectangle;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the tiles of a {@link ScrollingLayer} start at the top of its
+ * strip, wherever the strip is placed on the screen.
+ *
+ * @author Florin
+ */
+public class ScrollingLayerTest {
+
+	@Test
+	public void tilesStartAtTheTopOfTheStrip() {
+		// the fence strip: 985 is not a multiple of its height
+		ScrollingLayer layer = new ScrollingLayer(new WritableImage(146, 103), 985, 138, 103, 1);
+		assertTilesStartAtTop(layer, 138);
+
+		layer.setTile(new WritableImage(146, 103), 150);
+		layer.scrollTo(1234.5);
+		assertTilesStartAtTop(layer, 150);
+	}
+
+	private static void assertTilesStartAtTop(ScrollingLayer layer, double tileWidth) {
+		Rectangle strip = (Rectangle) layer.getNode();
+		ImagePattern pattern = (ImagePattern) strip.getFill();
+		assertEquals(strip.getY(), pattern.getY(), "first tile row");
+		assertEquals(strip.getHeight(), pattern.getHeight(), "tile height");
+		assertEquals(tileWidth, pattern.getWidth(), "tile width");
+		assertEquals(0.0, pattern.getX(), "first tile column");
+	}
+}
@@ -0,0 +1,63 @@
+package catchaleksa.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the centre-distance collision test of the player against a number
+ * of obstacles, i.e. the cost of a full pairwise pass. The simulation only uses
+ * this test when no collision masks are available; see
+ * {@link MaskCollisionBenchmark} for the pixel test.
+ *
+ * @author Florin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+
+	@Param({ "42", "1000", "10000" })
+	public int obstacles;
+
+	private double[] x;
+	private double[] y;
+	private double playerX = 480 - 61;
+	private double playerY = 540 - 90;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		x = new double[obstacles];
+		y = new double[obstacles];
+		for (int i = 0; i < obstacles; i++) {
+			x[i] = random.nextDouble() * 1920;
+			y[i] = random.nextDouble() * 1080;
+		}
+	}
+
+	@Benchmark
+	public int isPlayerColliding() throws Throwable {
+		int hits = 0;
+		for (int i = 0; i < obstacles; i++) {
+			if ((boolean) Game.IS_COLLIDING.invokeExact(playerX, playerY, 122.0, 181.0, x[i], y[i], 190.0, 100.0)) {
+				hits++;
+			}
+		}
+		return hits;
+	}
+}
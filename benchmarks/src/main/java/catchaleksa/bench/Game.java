@@ -0,0 +1,135 @@
+package catchaleksa.bench;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+
+import javafx.scene.image.Image;
+
+/**
+ * The Game class gives the benchmarks access to the game classes. The game lives
+ * in the default package, which cannot be imported from a named package, and JMH
+ * does not support benchmarks in the default package. The game's public methods
+ * are therefore bound once to constant method handles; invoked with
+ * {@code invokeExact} they are inlined by the JIT like direct calls.
+ *
+ * Receivers are typed as Object.
+ *
+ * @author Florin
+ */
+final class Game {
+
+	static final int NORTH = 1, SOUTH = 2, EAST = 4, WEST = 8;
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+	private static final Class<?> SIMULATION = load("GameSimulation");
+	private static final Class<?> SCROLLING_LAYER = load("ScrollingLayer");
+	private static final Class<?> MASKS = load("CollisionMasks");
+
+	/** {@code new GameSimulation(long seed, List<Level> levels, CollisionMasks masks)} */
+	static final MethodHandle NEW_SIMULATION_WITH_MASKS = constructor(SIMULATION, long.class, List.class, MASKS);
+	/** {@code LevelLoader.loadDefault()} */
+	static final MethodHandle LOAD_LEVELS = staticMethod(load("LevelLoader"), "loadDefault", List.class);
+	/** {@code CollisionMasks.loadDefault()} */
+	static final MethodHandle LOAD_MASKS = staticMethod(MASKS, "loadDefault", MASKS);
+	/** {@code GameSimulation.isColliding(x1, y1, w1, h1, x2, y2, w2, h2)} */
+	static final MethodHandle IS_COLLIDING = staticMethod(SIMULATION, "isColliding", boolean.class, double.class,
+			double.class, double.class, double.class, double.class, double.class, double.class, double.class);
+	/** {@code simulation.tick(int input)} */
+	static final MethodHandle TICK = method(SIMULATION, "tick", void.class, int.class);
+	/** {@code simulation.movePlayerBy(double dx, double dy, double distance)} */
+	static final MethodHandle MOVE_PLAYER_BY = method(SIMULATION, "movePlayerBy", void.class, double.class,
+			double.class, double.class);
+	/** {@code simulation.movePlayerTo(double x, double y)} */
+	static final MethodHandle MOVE_PLAYER_TO = method(SIMULATION, "movePlayerTo", void.class, double.class,
+			double.class);
+	/** {@code simulation.spawnObstacles(int columns, int rows, int packages)} */
+	static final MethodHandle SPAWN_OBSTACLES = method(SIMULATION, "spawnObstacles", void.class, int.class,
+			int.class, int.class);
+	/** {@code simulation.setHearts(int hearts)} */
+	static final MethodHandle SET_HEARTS = method(SIMULATION, "setHearts", void.class, int.class);
+	/** {@code simulation.startEndless()} */
+	static final MethodHandle START_ENDLESS = method(SIMULATION, "startEndless", void.class);
+	/** {@code simulation.isGameOver()} */
+	static final MethodHandle IS_GAME_OVER = method(SIMULATION, "isGameOver", boolean.class);
+	/** {@code simulation.clearBodies()} */
+	static final MethodHandle CLEAR_BODIES = method(SIMULATION, "clearBodies", void.class);
+	/** {@code new ScrollingLayer(Image image, double y, double tileWidth, double tileHeight, double parallax)} */
+	static final MethodHandle NEW_SCROLLING_LAYER = constructor(SCROLLING_LAYER, Image.class, double.class,
+			double.class, double.class, double.class);
+	/** {@code layer.scrollTo(double scroll)} */
+	static final MethodHandle SCROLL_TO = method(SCROLLING_LAYER, "scrollTo", void.class, double.class);
+
+	private Game() {
+	}
+
+	/**
+	 * Creates a new simulation with the given seed, the default levels and the
+	 * collision masks, so the benchmarks measure the collision test of the game.
+	 */
+	static Object newSimulation(long seed) {
+		return newSimulation(seed, true);
+	}
+
+	/**
+	 * Creates a new simulation with the given seed and the default levels,
+	 * testing collisions on the opaque pixels of the sprites or on their bounding
+	 * boxes only. Fails if the masks are asked for but the sprites cannot be
+	 * read, instead of measuring the fallback.
+	 */
+	static Object newSimulation(long seed, boolean masks) {
+		Object collisionMasks;
+		try {
+			collisionMasks = masks ? LOAD_MASKS.invoke() : null;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+		if (masks && collisionMasks == null) {
+			throw new IllegalStateException("The collision masks are not available; "
+					+ "package the benchmarks with mvn package, which puts assets.bundle next to benchmarks.jar, "
+					+ "or pass -Dcatchaleksa.bundle=<path of assets.bundle>");
+		}
+		try {
+			return NEW_SIMULATION_WITH_MASKS.invoke(seed, LOAD_LEVELS.invoke(), collisionMasks);
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static Class<?> load(String name) {
+		try {
+			return Class.forName(name);
+		} catch (ClassNotFoundException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private static MethodHandle constructor(Class<?> owner, Class<?>... parameters) {
+		try {
+			MethodHandle handle = LOOKUP.findConstructor(owner, methodType(void.class, parameters));
+			return handle.asType(handle.type().changeReturnType(Object.class));
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private static MethodHandle staticMethod(Class<?> owner, String name, Class<?> returnType,
+			Class<?>... parameters) {
+		try {
+			return LOOKUP.findStatic(owner, name, methodType(returnType, parameters));
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private static MethodHandle method(Class<?> owner, String name, Class<?> returnType, Class<?>... parameters) {
+		try {
+			MethodHandle handle = LOOKUP.findVirtual(owner, name, methodType(returnType, parameters));
+			return handle.asType(handle.type().changeParameterType(0, Object.class));
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+}
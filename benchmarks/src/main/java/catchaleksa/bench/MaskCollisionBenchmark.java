@@ -0,0 +1,61 @@
+package catchaleksa.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a tick of an endless run with the collision test on the opaque
+ * pixels of the sprites (CollisionMask.overlaps, called by the collision pass
+ * of the simulation for every obstacle whose bounding box touches the player)
+ * against the same run testing the bounding boxes only. The endless run keeps
+ * streaming obstacles past the player, so the workload stays the same once the
+ * difficulty has reached its maximum during warmup.
+ *
+ * @author Florin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MaskCollisionBenchmark {
+
+	@Param({ "masks", "boxes" })
+	public String collision;
+
+	private Object simulation;
+	private long ticks = 0;
+
+	@Setup
+	public void setup() throws Throwable {
+		simulation = Game.newSimulation(42, collision.equals("masks"));
+		Game.START_ENDLESS.invokeExact(simulation);
+	}
+
+	@Benchmark
+	public void tick() throws Throwable {
+		// The player sweeps up and down the middle of the screen, so obstacles
+		// keep passing its bounding box. The hearts are refilled, so the
+		// collisions never end the run.
+		double y = 200 + Math.abs((ticks++ % 1200) - 600);
+		Game.MOVE_PLAYER_TO.invokeExact(simulation, 900.0, y);
+		Game.SET_HEARTS.invokeExact(simulation, 3);
+		Game.TICK.invokeExact(simulation, 0);
+		if ((boolean) Game.IS_GAME_OVER.invokeExact(simulation)) {
+			// several hits in one tick; very rare
+			Game.START_ENDLESS.invokeExact(simulation);
+		}
+	}
+}
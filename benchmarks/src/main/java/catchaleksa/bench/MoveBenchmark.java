@@ -0,0 +1,50 @@
+package catchaleksa.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the player movement with its vector normalisation (the former
+ * moveCharacterBy) for a number of consecutive moves.
+ *
+ * @author Florin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveBenchmark {
+
+	@Param({ "1", "60", "3600" })
+	public int moves;
+
+	private Object simulation;
+
+	@Setup
+	public void setup() {
+		simulation = Game.newSimulation(42);
+	}
+
+	@Benchmark
+	public void movePlayerBy() throws Throwable {
+		Game.MOVE_PLAYER_TO.invokeExact(simulation, 960.0, 540.0);
+		for (int i = 0; i < moves; i++) {
+			// move back and forth on a diagonal, so the player stays on the screen
+			double d = (i & 1) == 0 ? 1.0 : -1.0;
+			Game.MOVE_PLAYER_BY.invokeExact(simulation, d, d, 2.0);
+		}
+	}
+}
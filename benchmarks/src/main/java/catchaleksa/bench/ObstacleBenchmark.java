@@ -0,0 +1,61 @@
+package catchaleksa.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the obstacle hot paths for grids of 7 columns and a growing number of
+ * rows: the layout generation done when a round starts, and a full tick
+ * (movement, broad phase and collision tests) of a populated world.
+ *
+ * @author Florin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObstacleBenchmark {
+
+	// 6 rows is the regular 7x6 grid of 42 obstacles, 6000 rows are 42000
+	@Param({ "6", "60", "600", "6000" })
+	public int rows;
+
+	private Object spawnSimulation;
+	private Object tickSimulation;
+
+	@Setup
+	public void setup() throws Throwable {
+		spawnSimulation = Game.newSimulation(42);
+		tickSimulation = Game.newSimulation(42);
+		Game.SPAWN_OBSTACLES.invokeExact(tickSimulation, 7, rows, rows);
+	}
+
+	@Benchmark
+	public void spawnObstacles() throws Throwable {
+		Game.CLEAR_BODIES.invokeExact(spawnSimulation);
+		Game.SPAWN_OBSTACLES.invokeExact(spawnSimulation, 7, rows, rows);
+	}
+
+	@Benchmark
+	public void tick() throws Throwable {
+		// The player stays in the top-left corner. It collects the obstacles of the
+		// row passing there during warmup; after that the workload is stable. The
+		// hearts are refilled, so the collisions never end the game.
+		Game.MOVE_PLAYER_TO.invokeExact(tickSimulation, 100.0, 100.0);
+		Game.SET_HEARTS.invokeExact(tickSimulation, 3);
+		Game.TICK.invokeExact(tickSimulation, Game.EAST);
+	}
+}
@@ -0,0 +1,68 @@
+package catchaleksa.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javafx.application.Platform;
+import javafx.scene.image.WritableImage;
+
+/**
+ * Measures scrolling the fence strip and any parallax layers by one tick, i.e.
+ * what replaced the per-fence movement of the former FenceBenchmark (one tick of
+ * 16 fence bodies). The layers are not part of a shown scene, so only the cost
+ * of scrollTo itself is measured, not the rendering.
+ *
+ * @author Florin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScrollingLayerBenchmark {
+
+	// 1 is the fence strip alone, more are parallax layers on top of it
+	@Param({ "1", "4" })
+	public int layers;
+
+	private Object[] strips;
+	private double scroll = 0;
+
+	@Setup
+	public void setup() throws Throwable {
+		// images can only be created once the toolkit is running
+		try {
+			Platform.startup(() -> {
+			});
+		} catch (IllegalStateException e) {
+			// already started by an earlier trial
+		}
+		WritableImage tile = new WritableImage(146, 103);
+		strips = new Object[layers];
+		for (int i = 0; i < layers; i++) {
+			strips[i] = (Object) Game.NEW_SCROLLING_LAYER.invokeExact((javafx.scene.image.Image) tile, 985.0, 138.0,
+					103.0, 1.0 / (i + 1));
+		}
+	}
+
+	@Benchmark
+	public void scrollTo() throws Throwable {
+		// the distance the fences move in one tick at the default speed of 125 px/s
+		scroll += 125.0 / 60;
+		for (Object strip : strips) {
+			Game.SCROLL_TO.invokeExact(strip, scroll);
+		}
+	}
+}
@@ -0,0 +1,114 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The AssetPacker class writes all sprites of the CatchAleksa game into one
+ * {@link AssetBundle} file. It runs at build time (see the pom of the tools
+ * module) and packs every PNG below the Assets folder, together with its size
+ * read from the PNG header. The packer is a build tool only and is not part of
+ * the game jar; the bundle is written next to that jar.
+ *
+ * Usage: {@code java AssetPacker <folder containing Assets> <bundle file>}
+ *
+ * @author Florin
+ */
+public class AssetPacker {
+
+	private static final byte[] PNG_SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n' };
+
+	/**
+	 * Packs the sprites below {@code args[0]/Assets} into the file
+	 * {@code args[1]}.
+	 *
+	 * @param args The source folder and the bundle file.
+	 * @throws IOException If a sprite cannot be read or the bundle not written.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Usage: java AssetPacker <folder containing Assets> <bundle file>");
+			System.exit(1);
+		}
+		Path root = Paths.get(args[0]);
+		Path bundle = Paths.get(args[1]);
+		int count = pack(root, bundle);
+		System.out.println("packed " + count + " sprites into " + bundle);
+	}
+
+	/**
+	 * Packs the sprites below {@code root/Assets} into the given bundle file.
+	 *
+	 * @param root   The folder containing the Assets folder.
+	 * @param bundle The bundle file to write.
+	 * @return The number of packed sprites.
+	 * @throws IOException If a sprite cannot be read or the bundle not written.
+	 */
+	public static int pack(Path root, Path bundle) throws IOException {
+		List<Path> files;
+		try (Stream<Path> walk = Files.walk(root.resolve("Assets"))) {
+			files = walk.filter(file -> file.toString().toLowerCase().endsWith(".png")).sorted()
+					.collect(Collectors.toList());
+		}
+
+		List<String> names = new ArrayList<>();
+		List<byte[]> contents = new ArrayList<>();
+		int indexSize = 12;
+		for (Path file : files) {
+			// asset ids always use '/', like the classpath paths they replace
+			String name = root.relativize(file).toString().replace('\\', '/');
+			names.add(name);
+			contents.add(Files.readAllBytes(file));
+			indexSize += 2 + name.getBytes(StandardCharsets.UTF_8).length + 16;
+		}
+
+		Path parent = bundle.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		try (OutputStream file = Files.newOutputStream(bundle);
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+			out.writeInt(AssetBundle.MAGIC);
+			out.writeInt(AssetBundle.VERSION);
+			out.writeInt(names.size());
+			int offset = indexSize;
+			for (int i = 0; i < names.size(); i++) {
+				byte[] name = names.get(i).getBytes(StandardCharsets.UTF_8);
+				byte[] png = contents.get(i);
+				out.writeShort(name.length);
+				out.write(name);
+				out.writeInt(pngInt(png, 16, names.get(i)));
+				out.writeInt(pngInt(png, 20, names.get(i)));
+				out.writeInt(offset);
+				out.writeInt(png.length);
+				offset += png.length;
+			}
+			for (byte[] png : contents) {
+				out.write(png);
+			}
+		}
+		return names.size();
+	}
+
+	/**
+	 * Reads the width (offset 16) or height (offset 20) from the IHDR chunk,
+	 * which always directly follows the PNG signature.
+	 */
+	private static int pngInt(byte[] png, int offset, String name) throws IOException {
+		for (int i = 0; i < PNG_SIGNATURE.length; i++) {
+			if (png.length < 24 || png[i] != PNG_SIGNATURE[i]) {
+				throw new IOException("Not a PNG file: " + name);
+			}
+		}
+		return ((png[offset] & 0xff) << 24) | ((png[offset + 1] & 0xff) << 16) | ((png[offset + 2] & 0xff) << 8)
+				| (png[offset + 3] & 0xff);
+	}
+}